@@ -6,6 +6,7 @@ import com.velocitypowered.api.command.CommandMeta;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Dependency;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
@@ -13,11 +14,18 @@ import com.velocitypowered.api.proxy.ProxyServer;
 import net.kyori.adventure.text.Component;
 import org.slf4j.Logger;
 import top.ourisland.invertotimer.config.ConfigManager;
+import top.ourisland.invertotimer.config.ConfigSnapshot;
+import top.ourisland.invertotimer.config.ConfigWatcher;
+import top.ourisland.invertotimer.config.model.WatchConfig;
 import top.ourisland.invertotimer.runtime.I18n;
+import top.ourisland.invertotimer.runtime.timer.ReloadSummary;
 import top.ourisland.invertotimer.runtime.timer.TimerRunner;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Plugin(
         id = "invertotimer",
@@ -37,6 +45,7 @@ public class InvertoTimer {
 
     private ConfigManager configManager;
     private TimerRunner timerRunner;
+    private ConfigWatcher configWatcher;
 
     @Inject
     public InvertoTimer(final ProxyServer proxy, final Logger logger, @DataDirectory final Path dataDir) {
@@ -61,6 +70,7 @@ public class InvertoTimer {
             proxy.getEventManager().register(this, this.timerRunner);
 
             registerCommands();
+            updateWatcher();
 
             logger.info("invertoTimer loaded: {} timer(s).", configManager.getTimers().size());
         } catch (final Exception e) {
@@ -68,6 +78,13 @@ public class InvertoTimer {
         }
     }
 
+    @Subscribe
+    public synchronized void onProxyShutdown(final ProxyShutdownEvent event) {
+        if (configWatcher != null) configWatcher.close();
+        configWatcher = null;
+        if (timerRunner != null) timerRunner.shutdown();
+    }
+
     private void registerCommands() {
         final CommandManager cm = proxy.getCommandManager();
         final CommandMeta meta = cm.metaBuilder("invertotimer")
@@ -78,14 +95,95 @@ public class InvertoTimer {
         cm.register(meta, new RootCommand(this));
     }
 
-    public void reload() {
-        configManager.reloadAll();
-        timerRunner.reloadFromConfig();
-        logger.info("invertoTimer reloaded: {} timer(s).", configManager.getTimers().size());
+    /**
+     * Re-read all config files on a scheduler thread and apply them once the new snapshot is published.
+     */
+    public CompletableFuture<ReloadSummary> reload() {
+        return configManager
+                .reloadAllAsync(task -> proxy.getScheduler().buildTask(this, task).schedule())
+                .thenApply(this::applyReload);
+    }
+
+    private synchronized ReloadSummary applyReload(final ConfigSnapshot snapshot) {
+        I18n.reload();
+        updateWatcher();
+        final ReloadSummary summary = timerRunner.reloadFromConfig();
+        logger.info(
+                "invertoTimer reloaded: {} timer(s) ({} kept, {} rebuilt, {} added, {} removed).",
+                snapshot.timers().size(),
+                summary.kept(), summary.rebuilt(), summary.added(), summary.removed()
+        );
+        return summary;
+    }
+
+    /**
+     * Reload only the given config files, as reported by the {@link ConfigWatcher}.
+     */
+    private synchronized void reloadChanged(final Set<String> files) {
+        if (configWatcher == null) return;
+
+        final boolean global = files.contains("config.yml");
+        final boolean allTimers = files.contains(ConfigManager.TIMER_DIR);
+        final List<String> timerFiles = files.stream().filter(ConfigManager::isTimerFile).toList();
+        final boolean timers = allTimers || !timerFiles.isEmpty();
+
+        if (global) {
+            configManager.reloadGlobal();
+            I18n.reload();
+        }
+        if (allTimers) {
+            configManager.reloadTimers();
+        } else {
+            timerFiles.forEach(configManager::reloadTimerFile);
+        }
+        if (files.contains("animations.yml")) configManager.reloadAnimations();
+
+        if (global || timers) {
+            final ReloadSummary summary = timerRunner.reloadFromConfig();
+            logger.info(
+                    "Detected changes in {}: {} kept, {} rebuilt, {} added, {} removed.",
+                    files, summary.kept(), summary.rebuilt(), summary.added(), summary.removed()
+            );
+        } else {
+            timerRunner.clearRenderCache();
+            logger.info("Detected changes in {}: {} animation(s) loaded.", files, configManager.animations().size());
+        }
+
+        if (global) updateWatcher();
+    }
+
+    private void updateWatcher() {
+        final WatchConfig watch = configManager.globalConfig().watch();
+
+        if (configWatcher != null) {
+            if (watch.enabled() && configWatcher.debounce().equals(watch.debounce())) return;
+            configWatcher.close();
+            configWatcher = null;
+        }
+        if (!watch.enabled()) return;
+
+        final ConfigWatcher w = new ConfigWatcher(
+                this, proxy, logger, dataDir, watch.debounce(), this::reloadChanged
+        );
+        try {
+            w.start();
+            configWatcher = w;
+        } catch (Exception e) {
+            logger.error("Failed to watch {} for config changes", dataDir, e);
+            w.close();
+        }
     }
 
     private record RootCommand(InvertoTimer plugin) implements SimpleCommand {
 
+        private static String formatMillis(final double ms) {
+            return String.format(Locale.ROOT, "%.3f", ms);
+        }
+
+        private static String formatAverage(final double v) {
+            return String.format(Locale.ROOT, "%.2f", v);
+        }
+
         @Override
         public void execute(final Invocation invocation) {
             final var src = invocation.source();
@@ -97,15 +195,26 @@ public class InvertoTimer {
             }
 
             if (args.length == 0) {
-                src.sendMessage(I18n.lang("itimer.command.usage", "/itimer <reload|list|status>"));
+                src.sendMessage(I18n.lang("itimer.command.usage", "/itimer <reload|list|status|stats>"));
                 return;
             }
 
             switch (args[0].toLowerCase(Locale.ROOT)) {
-                case "reload" -> {
-                    plugin.reload();
+                case "reload" -> plugin.reload().whenComplete((summary, err) -> {
+                    if (err != null) {
+                        plugin.logger.error("Failed to reload invertoTimer", err);
+                        src.sendMessage(I18n.lang("itimer.command.reload.failed"));
+                        return;
+                    }
                     src.sendMessage(I18n.lang("itimer.command.reload"));
-                }
+                    src.sendMessage(I18n.lang(
+                            "itimer.command.reload.summary",
+                            summary.kept(),
+                            summary.rebuilt(),
+                            summary.added(),
+                            summary.removed()
+                    ));
+                });
                 case "list", "status" -> {
                     final var timers = plugin.configManager.getTimers();
                     if (timers.isEmpty()) {
@@ -118,7 +227,44 @@ public class InvertoTimer {
                         src.sendMessage(Component.text(" - " + id + " : " + (next == null ? "N/A" : next)));
                     });
                 }
-                default -> src.sendMessage(I18n.lang("itimer.command.usage", "/itimer <reload|list|status>"));
+                case "stats" -> {
+                    final var stats = plugin.timerRunner.tickStats();
+                    src.sendMessage(I18n.lang("itimer.command.stats.header"));
+                    src.sendMessage(I18n.lang(
+                            "itimer.command.stats.tick",
+                            stats.lastTimers(),
+                            formatMillis(stats.lastMillis()),
+                            formatMillis(stats.averageMillis()),
+                            formatMillis(stats.maxMillis()),
+                            stats.ticks()
+                    ));
+                    src.sendMessage(stats.parallel()
+                            ? I18n.lang("itimer.command.stats.mode.parallel", stats.threads())
+                            : I18n.lang("itimer.command.stats.mode.sequential"));
+
+                    final var dispatch = plugin.timerRunner.dispatchStats();
+                    src.sendMessage(I18n.lang(
+                            "itimer.command.stats.actions",
+                            dispatch.batches(),
+                            dispatch.actions(),
+                            formatAverage(dispatch.averageBatchSize()),
+                            dispatch.maxBatchSize(),
+                            formatAverage(dispatch.averageLagMs()),
+                            dispatch.maxLagMs()
+                    ));
+
+                    final var render = plugin.timerRunner.renderStats();
+                    src.sendMessage(I18n.lang(
+                            "itimer.command.stats.render",
+                            render.hits(),
+                            render.misses(),
+                            formatAverage(render.hitRatePercent()),
+                            render.size(),
+                            render.capacity(),
+                            render.evictions()
+                    ));
+                }
+                default -> src.sendMessage(I18n.lang("itimer.command.usage", "/itimer <reload|list|status|stats>"));
             }
         }
     }
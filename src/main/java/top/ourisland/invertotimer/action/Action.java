@@ -1,5 +1,7 @@
 package top.ourisland.invertotimer.action;
 
+import top.ourisland.invertotimer.runtime.PlaceholderEngine;
+
 /**
  * Represents a generic executable action in the timer system.
  * <p>
@@ -8,8 +10,14 @@ package top.ourisland.invertotimer.action;
  * </p>
  *
  * <p>
- * Implementations are expected to be stateless or manage their own internal state safely. The {@link #execute()} method
- * should contain the actual behavior performed when the action is triggered.
+ * Implementations are expected to be stateless or manage their own internal state safely. The
+ * {@link #execute(PlaceholderEngine.Context)} method should contain the actual behavior performed when the action is
+ * triggered.
+ * </p>
+ *
+ * <p>
+ * Actions run on the dispatcher, concurrently with the tick of their timer, so they render with the placeholder values
+ * handed to {@link #execute(PlaceholderEngine.Context)} and never with the timer's tick state.
  * </p>
  *
  * @author Our-Island
@@ -45,6 +53,8 @@ public interface Action {
      * This method is called by the runtime when the action
      * is triggered.
      * </p>
+     *
+     * @param frame the placeholder values to render with, built for this execution
      */
-    void execute();
+    void execute(PlaceholderEngine.Context frame);
 }
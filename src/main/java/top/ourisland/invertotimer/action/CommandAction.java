@@ -1,7 +1,9 @@
 package top.ourisland.invertotimer.action;
 
 import lombok.NonNull;
+import top.ourisland.invertotimer.config.plan.CommandActionPlan;
 import top.ourisland.invertotimer.runtime.I18n;
+import top.ourisland.invertotimer.runtime.PlaceholderEngine;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 
 import java.util.regex.Pattern;
@@ -13,33 +15,14 @@ import java.util.regex.Pattern;
  */
 public class CommandAction implements Action {
     private final RuntimeContext ctx;
-    private final Executor executor;
-    private final String command;
-    private final Pattern match;
+    private final CommandActionPlan plan;
 
     public CommandAction(
             @NonNull RuntimeContext ctx,
-            Executor executor,
-            String command,
-            String matchRegex
+            @NonNull CommandActionPlan plan
     ) {
         this.ctx = ctx;
-        this.executor = executor == null ? Executor.PLAYER : executor;
-        this.command = command == null ? "" : command;
-
-        Pattern compiled = null;
-        if (this.executor == Executor.PLAYER && matchRegex != null && !matchRegex.isBlank()) {
-            try {
-                compiled = Pattern.compile(matchRegex);
-            } catch (Exception ignored) {
-            }
-        }
-        this.match = compiled;
-    }
-
-    public static Executor parse(String s) {
-        if (s == null) return Executor.PLAYER;
-        return "console".equalsIgnoreCase(s) ? Executor.CONSOLE : Executor.PLAYER;
+        this.plan = plan;
     }
 
     @Override
@@ -53,20 +36,20 @@ public class CommandAction implements Action {
     }
 
     @Override
-    public void execute() {
-        switch (executor) {
+    public void execute(final PlaceholderEngine.Context frame) {
+        final Pattern match = plan.match();
+        switch (plan.executor()) {
             case CONSOLE -> {
-                final String cmd = ctx.renderString(command).trim();
+                final String cmd = ctx.renderString(null, plan.command(), frame).trim();
                 if (cmd.isBlank()) return;
                 ctx.proxy().getCommandManager().executeAsync(
                         ctx.proxy().getConsoleCommandSource(), trimLeadingSlash(cmd)
                 );
             }
             case PLAYER -> ctx.players().stream()
-                    .filter(ctx::allowed)
                     .filter(p -> match == null || match.matcher(p.getUsername()).matches())
                     .forEach(p -> {
-                        final String cmd = ctx.renderString(p, command).trim();
+                        final String cmd = ctx.renderString(p, plan.command(), frame).trim();
                         if (cmd.isBlank()) return;
                         p.spoofChatInput(cmd);
                     });
@@ -78,9 +61,4 @@ public class CommandAction implements Action {
         while (s.startsWith("/")) s = s.substring(1);
         return s;
     }
-
-    public enum Executor {
-        CONSOLE,
-        PLAYER
-    }
 }
@@ -3,11 +3,11 @@ package top.ourisland.invertotimer.action;
 import lombok.NonNull;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import top.ourisland.invertotimer.config.plan.TransferActionPlan;
 import top.ourisland.invertotimer.runtime.I18n;
+import top.ourisland.invertotimer.runtime.PlaceholderEngine;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 
-import java.util.regex.Pattern;
-
 /**
  * An action for player transferring between servers.
  *
@@ -15,27 +15,14 @@ import java.util.regex.Pattern;
  */
 public class TransferAction implements Action {
     private final RuntimeContext ctx;
-    private final String target;
-    private final Pattern transfereePattern;
+    private final TransferActionPlan plan;
 
     public TransferAction(
             @NonNull RuntimeContext ctx,
-            String target,
-            String transfereeRegex
+            @NonNull TransferActionPlan plan
     ) {
         this.ctx = ctx;
-        this.target = target == null ? "" : target;
-
-        String rx = (transfereeRegex == null || transfereeRegex.isBlank()) ? ".*" : transfereeRegex;
-        this.transfereePattern = compileOrSafeNone(rx);
-    }
-
-    private static Pattern compileOrSafeNone(String rx) {
-        try {
-            return Pattern.compile(rx);
-        } catch (Exception ignored) {
-            return null;
-        }
+        this.plan = plan;
     }
 
     @Override
@@ -49,18 +36,15 @@ public class TransferAction implements Action {
     }
 
     @Override
-    public void execute() {
-        if (target.isBlank() || transfereePattern == null) return;
-
-        var serverOpt = ctx.proxy().getServer(target);
+    public void execute(final PlaceholderEngine.Context frame) {
+        var serverOpt = ctx.proxy().getServer(plan.target());
         if (serverOpt.isEmpty()) {
-            ctx.logger().warn("");
+            ctx.logger().warn("Transfer target server {} not found.", plan.target());
             return;
         }
 
         ctx.players().stream()
-                .filter(ctx::allowed)
-                .filter(p -> transfereePattern.matcher(p.getUsername()).matches())
+                .filter(p -> plan.transferee().matcher(p.getUsername()).matches())
                 .forEach(p -> {
                     p.createConnectionRequest(serverOpt.get()).connect().thenAccept(result -> {
                         if (!result.isSuccessful()) {
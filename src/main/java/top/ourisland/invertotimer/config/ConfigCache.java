@@ -0,0 +1,340 @@
+package top.ourisland.invertotimer.config;
+
+import org.slf4j.Logger;
+import top.ourisland.invertotimer.BuildConstants;
+import top.ourisland.invertotimer.config.model.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Binary cache of the parsed config models, stored under {@code cache/} in the data directory.
+ * <p>
+ * Each entry records the SHA-256 of the YAML it was built from, so a cached model is only used while its source file
+ * is byte-for-byte unchanged; any edit (or a different plugin version) falls back to parsing the YAML, which then
+ * refreshes the entry. Entries are written to a temporary file and moved into place, so a crash never leaves a torn
+ * entry behind.
+ */
+final class ConfigCache {
+    private static final int MAGIC = 0x49544343; // "ITCC"
+    private static final int FORMAT = 1;
+
+    private static final byte T_NULL = 0;
+    private static final byte T_STRING = 1;
+    private static final byte T_INT = 2;
+    private static final byte T_LONG = 3;
+    private static final byte T_DOUBLE = 4;
+    private static final byte T_BOOL = 5;
+    private static final byte T_LIST = 6;
+    private static final byte T_MAP = 7;
+
+    static final Codec<Map<String, TimerConfig>> TIMERS = new Codec<>() {
+        @Override
+        public void write(final DataOutputStream out, final Map<String, TimerConfig> timers) throws IOException {
+            out.writeInt(timers.size());
+            for (TimerConfig t : timers.values()) writeTimer(out, t);
+        }
+
+        @Override
+        public Map<String, TimerConfig> read(final DataInputStream in) throws IOException {
+            final int n = in.readInt();
+            final Map<String, TimerConfig> out = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                final TimerConfig t = readTimer(in);
+                out.put(t.id(), t);
+            }
+            return out;
+        }
+    };
+
+    static final Codec<Map<String, AnimationConfig>> ANIMATIONS = new Codec<>() {
+        @Override
+        public void write(final DataOutputStream out, final Map<String, AnimationConfig> animations)
+                throws IOException {
+            out.writeInt(animations.size());
+            for (AnimationConfig a : animations.values()) {
+                out.writeUTF(a.id());
+                out.writeLong(a.totalDurationMs());
+                out.writeInt(a.frames().size());
+                for (AnimationConfig.Frame f : a.frames()) {
+                    out.writeLong(f.durationMs());
+                    writeString(out, f.text());
+                }
+            }
+        }
+
+        @Override
+        public Map<String, AnimationConfig> read(final DataInputStream in) throws IOException {
+            final int n = in.readInt();
+            final Map<String, AnimationConfig> out = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                final String id = in.readUTF();
+                final long total = in.readLong();
+                final int frameCount = in.readInt();
+                final List<AnimationConfig.Frame> frames = new ArrayList<>(frameCount);
+                for (int j = 0; j < frameCount; j++) {
+                    frames.add(new AnimationConfig.Frame(in.readLong(), readString(in)));
+                }
+                out.put(id, new AnimationConfig(id, List.copyOf(frames), total));
+            }
+            return out;
+        }
+    };
+
+    private final Logger logger;
+    private final Path dir;
+
+    ConfigCache(final Logger logger, final Path dir) {
+        this.logger = logger;
+        this.dir = dir;
+    }
+
+    static byte[] hash(final byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @return the cached value for {@code name}, or {@code null} if there is none or it was built from other content
+     */
+    <T> T read(final String name, final byte[] hash, final Codec<T> codec) {
+        final Path p = dir.resolve(name + ".bin");
+        if (!Files.isRegularFile(p)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(p)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) return null;
+            if (!BuildConstants.VERSION.equals(in.readUTF())) return null;
+
+            final byte[] stored = new byte[in.readUnsignedShort()];
+            in.readFully(stored);
+            if (!MessageDigest.isEqual(stored, hash)) return null;
+
+            return codec.read(in);
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable config cache {}: {}", p.getFileName(), e.toString());
+            return null;
+        }
+    }
+
+    <T> void write(final String name, final byte[] hash, final T value, final Codec<T> codec) {
+        final Path p = dir.resolve(name + ".bin");
+        try {
+            Files.createDirectories(p.getParent());
+            final Path tmp = Files.createTempFile(p.getParent(), p.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeUTF(BuildConstants.VERSION);
+                out.writeShort(hash.length);
+                out.write(hash);
+                codec.write(out, value);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Files.move(tmp, p, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.warn("Failed to write config cache {}", p.getFileName(), e);
+        }
+    }
+
+    private static void writeTimer(final DataOutputStream out, final TimerConfig t) throws IOException {
+        out.writeUTF(t.id());
+        writeString(out, t.description());
+        writeString(out, t.cron());
+        writeString(out, t.time());
+        writeLimitation(out, t.limitation());
+
+        out.writeInt(t.showcases().size());
+        for (Map.Entry<String, ShowcaseConfig> e : t.showcases().entrySet()) {
+            out.writeUTF(e.getKey());
+            final ShowcaseConfig sc = e.getValue();
+            out.writeBoolean(sc != null);
+            if (sc == null) continue;
+
+            out.writeBoolean(sc.enabled());
+            writeDuration(out, sc.startAt());
+            writeDuration(out, sc.interval());
+            writeValue(out, sc.text());
+            writeString(out, sc.color());
+            out.writeBoolean(sc.after() != null);
+            if (sc.after() != null) {
+                writeValue(out, sc.after().text());
+                writeDuration(out, sc.after().duration());
+            }
+        }
+
+        out.writeInt(t.actions().size());
+        for (ActionConfig ac : t.actions()) {
+            writeString(out, ac.type());
+            writeDuration(out, ac.shift());
+            writeValue(out, ac.options());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TimerConfig readTimer(final DataInputStream in) throws IOException {
+        final String id = in.readUTF();
+        final String description = readString(in);
+        final String cron = readString(in);
+        final String time = readString(in);
+        final ServerLimitation limitation = readLimitation(in);
+
+        final int showcaseCount = in.readInt();
+        final Map<String, ShowcaseConfig> showcases = new LinkedHashMap<>();
+        for (int i = 0; i < showcaseCount; i++) {
+            final String key = in.readUTF();
+            if (!in.readBoolean()) {
+                showcases.put(key, null);
+                continue;
+            }
+
+            final boolean enabled = in.readBoolean();
+            final Duration startAt = readDuration(in);
+            final Duration interval = readDuration(in);
+            final Object text = readValue(in);
+            final String color = readString(in);
+            final ShowcaseConfig.After after = in.readBoolean()
+                    ? new ShowcaseConfig.After(readValue(in), readDuration(in))
+                    : null;
+            showcases.put(key, new ShowcaseConfig(enabled, startAt, interval, text, color, after));
+        }
+
+        final int actionCount = in.readInt();
+        final List<ActionConfig> actions = new ArrayList<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            final String type = readString(in);
+            final Duration shift = readDuration(in);
+            final Map<String, Object> options = (Map<String, Object>) readValue(in);
+            actions.add(new ActionConfig(type, shift, Collections.unmodifiableMap(options)));
+        }
+
+        return new TimerConfig(id, description, cron, time, limitation, showcases, actions);
+    }
+
+    private static void writeLimitation(final DataOutputStream out, final ServerLimitation lim) throws IOException {
+        out.writeByte(lim.mode().ordinal());
+        out.writeInt(lim.servers().size());
+        for (String s : lim.servers()) out.writeUTF(s);
+    }
+
+    private static ServerLimitation readLimitation(final DataInputStream in) throws IOException {
+        final ServerLimitation.Mode mode = ServerLimitation.Mode.values()[in.readByte()];
+        final int n = in.readInt();
+        final Set<String> servers = new HashSet<>();
+        for (int i = 0; i < n; i++) servers.add(in.readUTF());
+        return new ServerLimitation(mode, Set.copyOf(servers));
+    }
+
+    private static void writeDuration(final DataOutputStream out, final Duration d) throws IOException {
+        out.writeBoolean(d != null);
+        if (d != null) {
+            out.writeLong(d.getSeconds());
+            out.writeInt(d.getNano());
+        }
+    }
+
+    private static Duration readDuration(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? Duration.ofSeconds(in.readLong(), in.readInt()) : null;
+    }
+
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        writeValue(out, s);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final Object v = readValue(in);
+        return v == null ? null : String.valueOf(v);
+    }
+
+    /**
+     * Write a YAML value tree. Strings are length-prefixed UTF-8, so they are not bound by the 64 KiB limit of
+     * {@link DataOutputStream#writeUTF(String)}; scalar types SnakeYAML may produce beyond the tagged ones are stored
+     * as their string form.
+     */
+    private static void writeValue(final DataOutputStream out, final Object v) throws IOException {
+        switch (v) {
+            case null -> out.writeByte(T_NULL);
+            case Integer i -> {
+                out.writeByte(T_INT);
+                out.writeInt(i);
+            }
+            case Long l -> {
+                out.writeByte(T_LONG);
+                out.writeLong(l);
+            }
+            case Double d -> {
+                out.writeByte(T_DOUBLE);
+                out.writeDouble(d);
+            }
+            case Boolean b -> {
+                out.writeByte(T_BOOL);
+                out.writeBoolean(b);
+            }
+            case List<?> list -> {
+                out.writeByte(T_LIST);
+                out.writeInt(list.size());
+                for (Object o : list) writeValue(out, o);
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(T_MAP);
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    writeValue(out, String.valueOf(e.getKey()));
+                    writeValue(out, e.getValue());
+                }
+            }
+            default -> {
+                final byte[] bytes = String.valueOf(v).getBytes(StandardCharsets.UTF_8);
+                out.writeByte(T_STRING);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Object readValue(final DataInputStream in) throws IOException {
+        final byte tag = in.readByte();
+        return switch (tag) {
+            case T_NULL -> null;
+            case T_STRING -> {
+                final byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                yield new String(bytes, StandardCharsets.UTF_8);
+            }
+            case T_INT -> in.readInt();
+            case T_LONG -> in.readLong();
+            case T_DOUBLE -> in.readDouble();
+            case T_BOOL -> in.readBoolean();
+            case T_LIST -> {
+                final int n = in.readInt();
+                final List<Object> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) list.add(readValue(in));
+                yield list;
+            }
+            case T_MAP -> {
+                final int n = in.readInt();
+                final Map<String, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < n; i++) map.put((String) readValue(in), readValue(in));
+                yield map;
+            }
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    interface Codec<T> {
+        void write(DataOutputStream out, T value) throws IOException;
+
+        T read(DataInputStream in) throws IOException;
+    }
+}
@@ -5,32 +5,84 @@ import org.slf4j.Logger;
 import top.ourisland.invertotimer.config.model.AnimationConfig;
 import top.ourisland.invertotimer.config.model.GlobalConfig;
 import top.ourisland.invertotimer.config.model.TimerConfig;
+import top.ourisland.invertotimer.config.plan.AnimationPlan;
+import top.ourisland.invertotimer.config.plan.PlanCompiler;
+import top.ourisland.invertotimer.config.plan.TimerPlan;
+import top.ourisland.invertotimer.util.YamlStream;
 import top.ourisland.invertotimer.util.YamlUtil;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class ConfigManager {
+    public static final String TIMER_FILE = "timer.yml";
+    public static final String TIMER_DIR = "timers";
+
     private final Logger logger;
+    @Getter
     private final Path dataDir;
+    private final ConfigCache cache;
 
+    /**
+     * The currently published config. Writers build a complete new snapshot and swap it in with a single volatile
+     * write, so readers never lock.
+     */
     @Getter
-    private GlobalConfig globalConfig = GlobalConfig.defaults();
-    private Map<String, TimerConfig> timers = new LinkedHashMap<>();
-    @Getter
-    private Map<String, AnimationConfig> animations = new LinkedHashMap<>();
+    private volatile ConfigSnapshot snapshot = ConfigSnapshot.empty();
+
+    /**
+     * Timers by the file that defines them: {@code timer.yml} first, then {@code timers/*.yml} by name. Guarded by
+     * {@code this}.
+     */
+    private final Map<String, TimerSource> timerSources = new TreeMap<>(
+            Comparator.comparing((String name) -> !name.equals(TIMER_FILE)).thenComparing(Comparator.naturalOrder())
+    );
 
     public ConfigManager(final Logger logger, final Path dataDir) {
         this.logger = logger;
         this.dataDir = dataDir;
+        this.cache = new ConfigCache(logger, dataDir.resolve("cache"));
+    }
+
+    public GlobalConfig globalConfig() {
+        return snapshot.global();
+    }
+
+    public Map<String, AnimationConfig> animations() {
+        return snapshot.animations();
+    }
+
+    public Map<String, AnimationPlan> timelines() {
+        return snapshot.timelines();
     }
 
-    public void reloadAll() {
+    public Map<String, TimerConfig> getTimers() {
+        return snapshot.timers();
+    }
+
+    /**
+     * Run {@link #reloadAll()} on {@code executor}, so a slow parse does not block the calling thread.
+     *
+     * @return completes with the published snapshot
+     */
+    public CompletableFuture<ConfigSnapshot> reloadAllAsync(final Executor executor) {
+        return CompletableFuture.supplyAsync(this::reloadAll, executor);
+    }
+
+    /**
+     * Re-read all config files and publish them as one snapshot.
+     *
+     * @return the published snapshot
+     */
+    public synchronized ConfigSnapshot reloadAll() {
         try {
             Files.createDirectories(dataDir);
         } catch (IOException e) {
@@ -38,12 +90,76 @@ public class ConfigManager {
         }
 
         copyDefaultIfAbsent("config.yml");
-        copyDefaultIfAbsent("timer.yml");
+        copyDefaultIfAbsent(TIMER_FILE);
         copyDefaultIfAbsent("animations.yml");
+        try {
+            Files.createDirectories(dataDir.resolve(TIMER_DIR));
+        } catch (IOException e) {
+            logger.error("Cannot create timer directory: {}", dataDir.resolve(TIMER_DIR), e);
+        }
+
+        final GlobalConfig global = loadGlobal();
+        loadAllTimerSources();
+        final Map<String, TimerConfig> timers = new LinkedHashMap<>();
+        final Map<String, TimerPlan> plans = new LinkedHashMap<>();
+        mergeTimerSources(timers, plans);
+
+        final Map<String, AnimationConfig> animations = loadAnimations();
+        this.snapshot = new ConfigSnapshot(
+                global, timers, plans, animations, PlanCompiler.compileAnimations(animations)
+        );
+        return snapshot;
+    }
+
+    /**
+     * Re-read config.yml only.
+     */
+    public synchronized void reloadGlobal() {
+        copyDefaultIfAbsent("config.yml");
+        this.snapshot = snapshot.withGlobal(loadGlobal());
+    }
+
+    /**
+     * Re-read timer.yml and every file in the timers directory.
+     */
+    public synchronized void reloadTimers() {
+        copyDefaultIfAbsent(TIMER_FILE);
+        loadAllTimerSources();
+        publishTimers();
+    }
+
+    /**
+     * Re-read a single timer file; the timers of every other file are kept as they are. A file that no longer exists
+     * drops its timers.
+     *
+     * @param name {@code timer.yml} or {@code timers/<file>}
+     */
+    public synchronized void reloadTimerFile(final String name) {
+        if (Files.isRegularFile(dataDir.resolve(name))) {
+            timerSources.put(name, loadTimerSource(name));
+        } else {
+            timerSources.remove(name);
+        }
+        publishTimers();
+    }
+
+    /**
+     * @return whether {@code name} (relative to the data directory, {@code /}-separated) is a timer file
+     */
+    public static boolean isTimerFile(final String name) {
+        if (name.equals(TIMER_FILE)) return true;
+        if (!name.startsWith(TIMER_DIR + "/")) return false;
+        final String file = name.substring(TIMER_DIR.length() + 1);
+        return !file.contains("/") && (file.endsWith(".yml") || file.endsWith(".yaml"));
+    }
 
-        this.globalConfig = loadGlobal();
-        this.timers = loadTimers();
-        this.animations = loadAnimations();
+    /**
+     * Re-read animations.yml only.
+     */
+    public synchronized void reloadAnimations() {
+        copyDefaultIfAbsent("animations.yml");
+        final Map<String, AnimationConfig> animations = loadAnimations();
+        this.snapshot = snapshot.withAnimations(animations, PlanCompiler.compileAnimations(animations));
     }
 
     private void copyDefaultIfAbsent(final String filename) {
@@ -78,66 +194,177 @@ public class ConfigManager {
         }
     }
 
-    private Map<String, TimerConfig> loadTimers() {
-        final Path p = dataDir.resolve("timer.yml");
-        try {
-            final Object root = YamlUtil.parse(Files.readString(p));
-            if (!(root instanceof Map<?, ?> m)) {
-                logger.warn("timer.yml root is not a map.");
-                return new LinkedHashMap<>();
-            }
-            Object timersObj = m.get("timers");
-            if (!(timersObj instanceof Map<?, ?> timersMap)) {
-                logger.warn("timer.yml missing 'timers:' root map.");
-                return new LinkedHashMap<>();
-            }
-            final Map<String, TimerConfig> out = new LinkedHashMap<>();
-            for (Map.Entry<?, ?> e : timersMap.entrySet()) {
-                final String id = String.valueOf(e.getKey());
-                if (e.getValue() instanceof Map<?, ?> tm) {
-                    out.put(id, TimerConfig.fromYaml(id, tm));
+    private List<String> listTimerFiles() {
+        final List<String> names = new ArrayList<>();
+        names.add(TIMER_FILE);
+
+        final Path dir = dataDir.resolve(TIMER_DIR);
+        if (!Files.isDirectory(dir)) return names;
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(Files::isRegularFile)
+                    .map(f -> TIMER_DIR + "/" + f.getFileName())
+                    .filter(ConfigManager::isTimerFile)
+                    .sorted()
+                    .forEach(names::add);
+        } catch (IOException e) {
+            logger.error("Failed to list {}", dir, e);
+        }
+        return names;
+    }
+
+    /**
+     * Load every timer file, in parallel.
+     */
+    private void loadAllTimerSources() {
+        final long start = System.nanoTime();
+        final List<String> names = listTimerFiles();
+        final List<TimerSource> loaded = names.parallelStream().map(this::loadTimerSource).toList();
+
+        timerSources.clear();
+        int timers = 0, fromCache = 0;
+        for (int i = 0; i < names.size(); i++) {
+            final TimerSource src = loaded.get(i);
+            timerSources.put(names.get(i), src);
+            timers += src.timers().size();
+            if (src.cached()) fromCache++;
+        }
+
+        logger.info(
+                "Loaded {} timer(s) from {} file(s) in {} ms ({} from cache).",
+                timers, names.size(), elapsedMs(start), fromCache
+        );
+    }
+
+    private TimerSource loadTimerSource(final String name) {
+        final Loaded<TimerConfig> l = loadCached(name, ConfigCache.TIMERS, text -> parseTimers(name, text));
+        logger.debug("{} {} in {} ms.", l.cached() ? "Loaded from cache" : "Parsed", name, l.millis());
+        return new TimerSource(l.value(), PlanCompiler.compileAll(l.value(), logger), l.cached());
+    }
+
+    private void publishTimers() {
+        final Map<String, TimerConfig> timers = new LinkedHashMap<>();
+        final Map<String, TimerPlan> plans = new LinkedHashMap<>();
+        mergeTimerSources(timers, plans);
+        this.snapshot = snapshot.withTimers(timers, plans);
+    }
+
+    private void mergeTimerSources(final Map<String, TimerConfig> timers, final Map<String, TimerPlan> plans) {
+        final Map<String, String> definedIn = new HashMap<>();
+        for (Map.Entry<String, TimerSource> e : timerSources.entrySet()) {
+            for (Map.Entry<String, TimerConfig> t : e.getValue().timers().entrySet()) {
+                final String first = definedIn.putIfAbsent(t.getKey(), e.getKey());
+                if (first != null) {
+                    logger.warn("Timer {} in {} is already defined in {}, ignored.", t.getKey(), e.getKey(), first);
+                    continue;
                 }
+                timers.put(t.getKey(), t.getValue());
+                plans.put(t.getKey(), e.getValue().plans().get(t.getKey()));
             }
-            return out;
-        } catch (Exception e) {
-            logger.error("Failed to load timer.yml", e);
-            return new LinkedHashMap<>();
         }
     }
 
     private Map<String, AnimationConfig> loadAnimations() {
-        final Path p = dataDir.resolve("animations.yml");
-        if (!Files.exists(p)) {
-            return new LinkedHashMap<>();
+        final Loaded<AnimationConfig> l = loadCached("animations.yml", ConfigCache.ANIMATIONS, this::parseAnimations);
+        logger.info(
+                "{} animations.yml in {} ms ({} animation(s)).",
+                l.cached() ? "Loaded from cache" : "Parsed", l.millis(), l.value().size()
+        );
+        return l.value();
+    }
+
+    /**
+     * Load {@code filename} from the binary cache if it was built from the exact same content, otherwise parse the
+     * YAML and refresh the cache.
+     *
+     * @param parser returns {@code null} if the file is invalid; invalid files are never cached
+     */
+    private <V> Loaded<V> loadCached(
+            final String filename,
+            final ConfigCache.Codec<Map<String, V>> codec,
+            final Function<Reader, Map<String, V>> parser
+    ) {
+        final long start = System.nanoTime();
+        final Path p = dataDir.resolve(filename);
+        if (!Files.exists(p)) return new Loaded<>(new LinkedHashMap<>(), false, 0);
+
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(p);
+        } catch (IOException e) {
+            logger.error("Failed to load {}", filename, e);
+            return new Loaded<>(new LinkedHashMap<>(), false, elapsedMs(start));
         }
 
+        final byte[] hash = ConfigCache.hash(bytes);
+        final Map<String, V> cached = cache.read(filename, hash, codec);
+        if (cached != null) return new Loaded<>(cached, true, elapsedMs(start));
+
+        final Map<String, V> parsed = parser.apply(
+                new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)
+        );
+        if (parsed == null) return new Loaded<>(new LinkedHashMap<>(), false, elapsedMs(start));
+
+        cache.write(filename, hash, parsed, codec);
+        return new Loaded<>(parsed, false, elapsedMs(start));
+    }
+
+    private static long elapsedMs(final long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Stream the {@code timers:} section of a timer file, building each {@link TimerConfig} as soon as its subtree has
+     * been read.
+     */
+    private Map<String, TimerConfig> parseTimers(final String name, final Reader reader) {
         try {
-            final Object root = YamlUtil.parse(Files.readString(p));
-            if (!(root instanceof Map<?, ?> m)) {
-                logger.warn("{} root is not a map.", p.getFileName());
-                return new LinkedHashMap<>();
-            }
-            Object animationsObj = m.get("animations");
-            if (!(animationsObj instanceof Map<?, ?> animationsMap)) {
-                logger.warn("{} missing 'animations:' root map.", p.getFileName());
-                return new LinkedHashMap<>();
+            final Map<String, TimerConfig> out = new LinkedHashMap<>();
+            final boolean found = YamlStream.streamSection(reader, "timers", out::clear, (id, value) -> {
+                if (value instanceof Map<?, ?> tm) out.put(id, TimerConfig.fromYaml(id, tm));
+            });
+            if (!found) {
+                logger.warn("{} missing 'timers:' root map.", name);
+                return null;
             }
+            return out;
+        } catch (Exception e) {
+            logger.error("Failed to load {}", name, e);
+            return null;
+        }
+    }
 
+    private Map<String, AnimationConfig> parseAnimations(final Reader reader) {
+        try {
             final Map<String, AnimationConfig> out = new LinkedHashMap<>();
-            for (Map.Entry<?, ?> e : animationsMap.entrySet()) {
-                final String id = String.valueOf(e.getKey());
-                if (e.getValue() instanceof Map<?, ?> am) {
-                    out.put(id, AnimationConfig.fromYaml(id, am));
-                }
+            final boolean found = YamlStream.streamSection(reader, "animations", out::clear, (id, value) -> {
+                if (value instanceof Map<?, ?> am) out.put(id, AnimationConfig.fromYaml(id, am));
+            });
+            if (!found) {
+                logger.warn("animations.yml missing 'animations:' root map.");
+                return null;
             }
             return out;
         } catch (Exception e) {
-            logger.error("Failed to load {}", p.getFileName(), e);
-            return new LinkedHashMap<>();
+            logger.error("Failed to load animations.yml", e);
+            return null;
         }
     }
 
-    public Map<String, TimerConfig> getTimers() {
-        return Collections.unmodifiableMap(timers);
+    /**
+     * The timers of one file, with their plans.
+     */
+    private record TimerSource(
+            Map<String, TimerConfig> timers,
+            Map<String, TimerPlan> plans,
+            boolean cached
+    ) {
+    }
+
+    private record Loaded<V>(
+            Map<String, V> value,
+            boolean cached,
+            long millis
+    ) {
     }
 }
@@ -0,0 +1,57 @@
+package top.ourisland.invertotimer.config;
+
+import top.ourisland.invertotimer.config.model.AnimationConfig;
+import top.ourisland.invertotimer.config.model.GlobalConfig;
+import top.ourisland.invertotimer.config.model.TimerConfig;
+import top.ourisland.invertotimer.config.plan.AnimationPlan;
+import top.ourisland.invertotimer.config.plan.TimerPlan;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of everything loaded from the config files.
+ * <p>
+ * A snapshot is fully built before {@link ConfigManager} publishes it, so a reader that holds one never sees a
+ * half-reloaded state. The maps keep the declaration order of the files and cannot be modified.
+ *
+ * @param global     config.yml
+ * @param timers     timer.yml, by timer id
+ * @param plans      the compiled form of {@code timers}, by timer id
+ * @param animations animations.yml, by animation id
+ * @param timelines  the compiled form of {@code animations}, by animation id
+ */
+public record ConfigSnapshot(
+        GlobalConfig global,
+        Map<String, TimerConfig> timers,
+        Map<String, TimerPlan> plans,
+        Map<String, AnimationConfig> animations,
+        Map<String, AnimationPlan> timelines
+) {
+    public ConfigSnapshot {
+        timers = Collections.unmodifiableMap(new LinkedHashMap<>(timers));
+        plans = Collections.unmodifiableMap(new LinkedHashMap<>(plans));
+        animations = Collections.unmodifiableMap(new LinkedHashMap<>(animations));
+        timelines = Collections.unmodifiableMap(new LinkedHashMap<>(timelines));
+    }
+
+    public static ConfigSnapshot empty() {
+        return new ConfigSnapshot(GlobalConfig.defaults(), Map.of(), Map.of(), Map.of(), Map.of());
+    }
+
+    public ConfigSnapshot withGlobal(final GlobalConfig global) {
+        return new ConfigSnapshot(global, timers, plans, animations, timelines);
+    }
+
+    public ConfigSnapshot withTimers(final Map<String, TimerConfig> timers, final Map<String, TimerPlan> plans) {
+        return new ConfigSnapshot(global, timers, plans, animations, timelines);
+    }
+
+    public ConfigSnapshot withAnimations(
+            final Map<String, AnimationConfig> animations,
+            final Map<String, AnimationPlan> timelines
+    ) {
+        return new ConfigSnapshot(global, timers, plans, animations, timelines);
+    }
+}
@@ -0,0 +1,180 @@
+package top.ourisland.invertotimer.config;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the data directory and its {@code timers/} directory for changes to the plugin's config files.
+ * <p>
+ * Events are collected per file name and handed to the callback once no further change arrived for the debounce
+ * period, so one save (which many editors perform as several writes or a rename) results in one reload of exactly the
+ * files that changed.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+    public static final Set<String> WATCHED_FILES = Set.of("config.yml", ConfigManager.TIMER_FILE, "animations.yml");
+
+    private final Object plugin;
+    private final ProxyServer proxy;
+    private final Logger logger;
+    private final Path dataDir;
+    private final Duration debounce;
+    private final Consumer<Set<String>> onChange;
+
+    private final Set<String> pending = new LinkedHashSet<>();
+    private final Map<WatchKey, String> prefixes = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread thread;
+    private ScheduledTask flushTask;
+
+    /**
+     * @param onChange receives the names of the files that changed (relative to the data directory, {@code /}-separated),
+     *                 called on a scheduler thread
+     */
+    public ConfigWatcher(
+            final Object plugin,
+            final ProxyServer proxy,
+            final Logger logger,
+            final Path dataDir,
+            final Duration debounce,
+            final Consumer<Set<String>> onChange
+    ) {
+        this.plugin = plugin;
+        this.proxy = proxy;
+        this.logger = logger;
+        this.dataDir = dataDir;
+        this.debounce = debounce;
+        this.onChange = onChange;
+    }
+
+    public synchronized void start() throws IOException {
+        if (watchService != null) return;
+
+        watchService = dataDir.getFileSystem().newWatchService();
+        register(dataDir, "");
+        registerTimerDir();
+
+        final WatchService ws = watchService;
+        thread = new Thread(() -> run(ws), "invertoTimer-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching {} for config changes.", dataDir);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (flushTask != null) flushTask.cancel();
+        flushTask = null;
+        pending.clear();
+
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close config watcher", e);
+        }
+        watchService = null;
+        thread = null;
+        prefixes.clear();
+    }
+
+    public Duration debounce() {
+        return debounce;
+    }
+
+    private void register(final Path dir, final String prefix) throws IOException {
+        final WatchKey key = dir.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE
+        );
+        prefixes.put(key, prefix);
+    }
+
+    private synchronized void registerTimerDir() {
+        final Path dir = dataDir.resolve(ConfigManager.TIMER_DIR);
+        if (watchService == null || !Files.isDirectory(dir) || prefixes.containsValue(ConfigManager.TIMER_DIR + "/")) {
+            return;
+        }
+        try {
+            register(dir, ConfigManager.TIMER_DIR + "/");
+        } catch (IOException e) {
+            logger.warn("Failed to watch {}", dir, e);
+        }
+    }
+
+    private void run(final WatchService ws) {
+        while (true) {
+            final WatchKey key;
+            try {
+                key = ws.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            final String prefix = prefixes.getOrDefault(key, "");
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    changed(prefix.isEmpty() ? WATCHED_FILES : Set.of(ConfigManager.TIMER_DIR));
+                    continue;
+                }
+                if (!(event.context() instanceof Path p)) continue;
+
+                final String name = prefix + p.getFileName();
+                if (name.equals(ConfigManager.TIMER_DIR)) {
+                    // the directory was created (or replaced) after the watcher started
+                    registerTimerDir();
+                    changed(Set.of(ConfigManager.TIMER_DIR));
+                } else if (WATCHED_FILES.contains(name) || ConfigManager.isTimerFile(name)) {
+                    changed(Set.of(name));
+                }
+            }
+
+            if (!key.reset()) {
+                prefixes.remove(key);
+                if (prefixes.isEmpty()) {
+                    logger.warn("Config watcher for {} is no longer valid, automatic reload stopped.", dataDir);
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized void changed(final Set<String> names) {
+        if (watchService == null) return;
+
+        pending.addAll(names);
+        if (flushTask != null) flushTask.cancel();
+        flushTask = proxy.getScheduler()
+                .buildTask(plugin, this::flush)
+                .delay(debounce.toMillis(), TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    private void flush() {
+        final Set<String> names;
+        synchronized (this) {
+            flushTask = null;
+            if (pending.isEmpty()) return;
+            names = new LinkedHashSet<>(pending);
+            pending.clear();
+        }
+
+        try {
+            onChange.accept(names);
+        } catch (Exception e) {
+            logger.error("Failed reloading changed config files {}", names, e);
+        }
+    }
+}
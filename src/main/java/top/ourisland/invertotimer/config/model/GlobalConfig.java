@@ -11,14 +11,24 @@ import java.util.Map;
  * @param lang the language that the plugin uses
  * @param zoneId timezone that the timer will use
  * @param limitation global whitelist/blacklist of the server
+ * @param performance performance tuning options
+ * @param watch file watching options
  */
 public record GlobalConfig(
         String lang,
         ZoneId zoneId,
-        ServerLimitation limitation
+        ServerLimitation limitation,
+        PerformanceConfig performance,
+        WatchConfig watch
 ) {
     public static GlobalConfig defaults() {
-        return new GlobalConfig("en_us", ZoneId.systemDefault(), ServerLimitation.allowAll());
+        return new GlobalConfig(
+                "en_us",
+                ZoneId.systemDefault(),
+                ServerLimitation.allowAll(),
+                PerformanceConfig.defaults(),
+                WatchConfig.defaults()
+        );
     }
 
     public static GlobalConfig fromYaml(final Map<?, ?> m) {
@@ -33,6 +43,8 @@ public record GlobalConfig(
         }
 
         final ServerLimitation lim = ServerLimitation.fromYaml(m.get("limitation"));
-        return new GlobalConfig(lang, zone, lim);
+        final PerformanceConfig perf = PerformanceConfig.fromYaml(m.get("performance"));
+        final WatchConfig watch = WatchConfig.fromYaml(m.get("watch"));
+        return new GlobalConfig(lang, zone, lim, perf, watch);
     }
 }
@@ -0,0 +1,53 @@
+package top.ourisland.invertotimer.config.model;
+
+import top.ourisland.invertotimer.util.TimeUtil;
+import top.ourisland.invertotimer.util.YamlUtil;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Performance tuning options from the {@code performance:} section of config.yml.
+ *
+ * @param parallelTick    tick due timers on a worker pool instead of the scheduler thread
+ * @param parallelThreads worker count for the parallel tick ({@code <= 0} means one per available processor)
+ * @param actionHorizon   how far ahead actions are handed to the dispatcher; later ones wait inside their timer
+ * @param bossbarSteps    number of distinct bossbar progress values ({@code <= 0} means unquantized)
+ */
+public record PerformanceConfig(
+        boolean parallelTick,
+        int parallelThreads,
+        Duration actionHorizon,
+        int bossbarSteps
+) {
+    private static final Duration DEFAULT_ACTION_HORIZON = Duration.ofMinutes(10);
+    /**
+     * The bossbar is 182 pixels wide on the client, so finer progress steps are not visible.
+     */
+    private static final int DEFAULT_BOSSBAR_STEPS = 182;
+
+    public static PerformanceConfig defaults() {
+        return new PerformanceConfig(false, 0, DEFAULT_ACTION_HORIZON, DEFAULT_BOSSBAR_STEPS);
+    }
+
+    public static PerformanceConfig fromYaml(final Object obj) {
+        if (!(obj instanceof Map<?, ?> m)) return defaults();
+
+        final boolean parallel = YamlUtil.getBool(m, "parallel-tick", false);
+        final int threads = (int) YamlUtil.getLong(m, "parallel-threads", 0);
+
+        Duration horizon = TimeUtil.parseDurationLoose(m.get("action-horizon"));
+        horizon = horizon == null ? DEFAULT_ACTION_HORIZON : horizon.abs();
+
+        final int steps = (int) YamlUtil.getLong(m, "bossbar-resolution", DEFAULT_BOSSBAR_STEPS);
+
+        return new PerformanceConfig(parallel, threads, horizon, steps);
+    }
+
+    /**
+     * @return the effective worker count of the parallel tick
+     */
+    public int effectiveThreads() {
+        return parallelThreads > 0 ? parallelThreads : Runtime.getRuntime().availableProcessors();
+    }
+}
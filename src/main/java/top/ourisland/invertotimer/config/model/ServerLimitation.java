@@ -1,9 +1,11 @@
 package top.ourisland.invertotimer.config.model;
 
+import lombok.Getter;
 import top.ourisland.invertotimer.util.YamlUtil;
 
 import java.util.*;
 
+@Getter
 public class ServerLimitation {
     private final Mode mode;
     private final Set<String> servers;
@@ -37,6 +39,18 @@ public class ServerLimitation {
         return (mode == Mode.BLACKLIST) != contains;
     }
 
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ServerLimitation that)) return false;
+        return mode == that.mode && servers.equals(that.servers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mode, servers);
+    }
+
     public enum Mode {
         BLACKLIST,
         WHITELIST
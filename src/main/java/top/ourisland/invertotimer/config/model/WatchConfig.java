@@ -0,0 +1,34 @@
+package top.ourisland.invertotimer.config.model;
+
+import top.ourisland.invertotimer.util.YamlUtil;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * File watching options from the {@code watch:} section of config.yml.
+ *
+ * @param enabled  reload config files automatically when they change on disk
+ * @param debounce quiet period after the last change before the files are reloaded
+ */
+public record WatchConfig(
+        boolean enabled,
+        Duration debounce
+) {
+    private static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(500);
+
+    public static WatchConfig defaults() {
+        return new WatchConfig(false, DEFAULT_DEBOUNCE);
+    }
+
+    public static WatchConfig fromYaml(final Object obj) {
+        if (!(obj instanceof Map<?, ?> m)) return defaults();
+
+        final boolean enabled = YamlUtil.getBool(m, "enabled", false);
+
+        final long debounceMs = YamlUtil.getLong(m, "debounce-ms", DEFAULT_DEBOUNCE.toMillis());
+        final Duration debounce = Duration.ofMillis(Math.max(0, debounceMs));
+
+        return new WatchConfig(enabled, debounce);
+    }
+}
@@ -0,0 +1,11 @@
+package top.ourisland.invertotimer.config.plan;
+
+/**
+ * An action resolved at config load.
+ */
+public sealed interface ActionPlan permits TextActionPlan, CommandActionPlan, TransferActionPlan {
+    /**
+     * @return offset from the timer target in milliseconds
+     */
+    long shiftMs();
+}
@@ -0,0 +1,44 @@
+package top.ourisland.invertotimer.config.plan;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The compiled timeline of an animation.
+ * <p>
+ * Frame durations are stored as prefix sums, so the frame shown at an instant is found by binary search instead of
+ * walking the frame list.
+ *
+ * @param id     the animation id
+ * @param endsMs end offset of each frame within one loop, strictly increasing; the last one is the loop length
+ * @param texts  frame texts, in the same order as {@code endsMs}
+ */
+public record AnimationPlan(
+        String id,
+        long[] endsMs,
+        List<String> texts
+) {
+    public int size() {
+        return endsMs.length;
+    }
+
+    public long totalMs() {
+        return endsMs[endsMs.length - 1];
+    }
+
+    /**
+     * @return index of the frame shown at {@code epochMs}
+     */
+    public int frameAt(final long epochMs) {
+        final int i = Arrays.binarySearch(endsMs, Math.floorMod(epochMs, totalMs()));
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /**
+     * @return the first instant after {@code epochMs} at which another frame starts
+     */
+    public long nextFrameMs(final long epochMs) {
+        final long offset = Math.floorMod(epochMs, totalMs());
+        return epochMs - offset + endsMs[frameAt(epochMs)];
+    }
+}
@@ -0,0 +1,24 @@
+package top.ourisland.invertotimer.config.plan;
+
+import java.util.regex.Pattern;
+
+/**
+ * Plan of a {@code command} action.
+ *
+ * @param shiftMs  offset from the timer target in milliseconds
+ * @param executor who runs the command
+ * @param command  the command template
+ * @param match    usernames of the players that run the command, or {@code null} for every player
+ */
+public record CommandActionPlan(
+        long shiftMs,
+        Executor executor,
+        String command,
+        Pattern match
+) implements ActionPlan {
+
+    public enum Executor {
+        CONSOLE,
+        PLAYER
+    }
+}
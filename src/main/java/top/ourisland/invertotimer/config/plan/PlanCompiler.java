@@ -0,0 +1,255 @@
+package top.ourisland.invertotimer.config.plan;
+
+import org.slf4j.Logger;
+import top.ourisland.invertotimer.config.model.ActionConfig;
+import top.ourisland.invertotimer.config.model.AnimationConfig;
+import top.ourisland.invertotimer.config.model.ShowcaseConfig;
+import top.ourisland.invertotimer.config.model.TimerConfig;
+import top.ourisland.invertotimer.runtime.showcase.ShowcaseType;
+import top.ourisland.invertotimer.util.Cron5;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Turns loosely typed {@link TimerConfig}s into {@link TimerPlan}s.
+ * <p>
+ * Everything that used to be interpreted at runtime (time specs, showcase texts, action options, regexes, windows) is
+ * resolved here once per config load. Problems are logged once and the offending part is left out of the plan.
+ */
+public final class PlanCompiler {
+    public static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private PlanCompiler() {
+    }
+
+    public static Map<String, TimerPlan> compileAll(final Map<String, TimerConfig> timers, final Logger logger) {
+        final Map<String, TimerPlan> out = new LinkedHashMap<>();
+        for (Map.Entry<String, TimerConfig> e : timers.entrySet()) {
+            out.put(e.getKey(), compile(e.getValue(), logger));
+        }
+        return out;
+    }
+
+    public static Map<String, AnimationPlan> compileAnimations(final Map<String, AnimationConfig> animations) {
+        final Map<String, AnimationPlan> out = new LinkedHashMap<>();
+        for (Map.Entry<String, AnimationConfig> e : animations.entrySet()) {
+            out.put(e.getKey(), compileAnimation(e.getValue()));
+        }
+        return out;
+    }
+
+    public static AnimationPlan compileAnimation(final AnimationConfig cfg) {
+        final List<AnimationConfig.Frame> frames = cfg.frames().isEmpty()
+                ? List.of(new AnimationConfig.Frame(1000, ""))
+                : cfg.frames();
+
+        final long[] ends = new long[frames.size()];
+        final List<String> texts = new ArrayList<>(frames.size());
+        long acc = 0;
+        for (int i = 0; i < frames.size(); i++) {
+            final AnimationConfig.Frame f = frames.get(i);
+            acc += Math.max(1, f.durationMs());
+            ends[i] = acc;
+            texts.add(f.text() == null ? "" : f.text());
+        }
+        return new AnimationPlan(cfg.id(), ends, List.copyOf(texts));
+    }
+
+    public static TimerPlan compile(final TimerConfig cfg, final Logger logger) {
+        final String id = cfg.id();
+
+        Cron5 cron = null;
+        if (cfg.cron() != null && !cfg.cron().isBlank()) {
+            try {
+                cron = Cron5.parse(cfg.cron());
+            } catch (Exception e) {
+                logger.warn("Timer {}: invalid cron '{}': {}", id, cfg.cron(), e.getMessage());
+            }
+        }
+
+        LocalDateTime time = null;
+        if (cfg.time() != null && !cfg.time().isBlank()) {
+            try {
+                time = LocalDateTime.parse(cfg.time(), TIME_FMT);
+            } catch (Exception e) {
+                logger.warn("Timer {}: invalid time '{}', expected yyyy-MM-dd HH:mm:ss.", id, cfg.time());
+            }
+        }
+
+        if (cron == null && time == null) {
+            logger.warn("Timer {} has neither a valid cron nor a valid time and will never fire.", id);
+        }
+
+        long expireOffsetMs = 0;
+
+        final Map<ShowcaseType, ShowcasePlan> showcases = new LinkedHashMap<>();
+        for (Map.Entry<String, ShowcaseConfig> e : cfg.showcases().entrySet()) {
+            final ShowcasePlan plan = compileShowcase(id, e.getKey(), e.getValue(), logger);
+            if (plan == null) continue;
+            showcases.put(plan.kind(), plan);
+            expireOffsetMs = Math.max(expireOffsetMs, plan.afterMs());
+        }
+
+        final List<ActionPlan> actions = new ArrayList<>();
+        for (ActionConfig ac : cfg.actions()) {
+            final ActionPlan plan = compileAction(id, ac, logger);
+            if (plan == null) continue;
+            actions.add(plan);
+            expireOffsetMs = Math.max(expireOffsetMs, plan.shiftMs());
+        }
+        actions.sort(Comparator.comparingLong(ActionPlan::shiftMs));
+
+        return new TimerPlan(
+                id,
+                cfg.description(),
+                cron,
+                time,
+                cfg.limitation(),
+                new ArrayList<>(showcases.values()),
+                actions,
+                expireOffsetMs
+        );
+    }
+
+    private static ShowcasePlan compileShowcase(
+            final String timerId,
+            final String key,
+            final ShowcaseConfig sc,
+            final Logger logger
+    ) {
+        final ShowcaseType kind = ShowcaseType.fromKey(key);
+        if (kind == null) {
+            logger.warn("Timer {}: unknown showcase '{}', ignored.", timerId, key);
+            return null;
+        }
+        if (sc == null) {
+            logger.warn("Timer {}: showcase '{}' is not a map, ignored.", timerId, key);
+            return null;
+        }
+        if (!sc.enabled()) return null;
+
+        final long startAtMs = sc.startAt() == null ? -1 : sc.startAt().abs().toMillis();
+        final long intervalMs = (sc.interval() == null ? kind.defaultInterval() : sc.interval()).toMillis();
+
+        final boolean allowAfter = kind != ShowcaseType.TEXT;
+        final ShowcaseConfig.After af = sc.after();
+        final Duration afterDur = af == null || af.duration() == null ? Duration.ZERO : af.duration();
+        final TextSpec afterText = !allowAfter || afterDur.isZero() || af.text() == null
+                ? null
+                : TextSpec.of(af.text());
+
+        return new ShowcasePlan(
+                key.toLowerCase(Locale.ROOT),
+                kind,
+                startAtMs,
+                intervalMs,
+                TextSpec.of(sc.text()),
+                afterText,
+                allowAfter ? afterDur.toMillis() : 0,
+                sc.color() == null ? "blue" : sc.color()
+        );
+    }
+
+    private static ActionPlan compileAction(final String timerId, final ActionConfig ac, final Logger logger) {
+        final String type = ac.type() == null ? "" : ac.type().toLowerCase(Locale.ROOT);
+        final Map<String, Object> opt = ac.options();
+        final long shiftMs = ac.shift().toMillis();
+
+        return switch (type) {
+            case "text" -> compileTextAction(shiftMs, opt);
+            case "command" -> {
+                final CommandActionPlan.Executor executor =
+                        "console".equalsIgnoreCase(String.valueOf(opt.getOrDefault("executor", "player")))
+                                ? CommandActionPlan.Executor.CONSOLE
+                                : CommandActionPlan.Executor.PLAYER;
+
+                Pattern match = null;
+                final String rx = String.valueOf(opt.getOrDefault("match", ".*"));
+                if (executor == CommandActionPlan.Executor.PLAYER && !rx.isBlank()) {
+                    match = compileRegex(timerId, "match", rx, logger);
+                }
+                yield new CommandActionPlan(shiftMs, executor, String.valueOf(opt.getOrDefault("command", "")), match);
+            }
+            case "transfer" -> {
+                final String target = String.valueOf(opt.getOrDefault("target", ""));
+                if (target.isBlank()) {
+                    logger.warn("Timer {}: transfer action without a target, ignored.", timerId);
+                    yield null;
+                }
+
+                final String rx = String.valueOf(opt.getOrDefault("transferee", ".*"));
+                final Pattern transferee = compileRegex(timerId, "transferee", rx.isBlank() ? ".*" : rx, logger);
+                yield transferee == null ? null : new TransferActionPlan(shiftMs, target, transferee);
+            }
+            default -> {
+                logger.warn("Timer {}: unknown action type '{}', ignored.", timerId, ac.type());
+                yield null;
+            }
+        };
+    }
+
+    private static TextActionPlan compileTextAction(final long shiftMs, final Map<String, Object> opt) {
+        final Object info = opt.get("info");
+        final TextActionPlan.TextType type = switch (
+                String.valueOf(opt.getOrDefault("text-type", "message")).toLowerCase(Locale.ROOT)
+                ) {
+            case "actionbar" -> TextActionPlan.TextType.ACTIONBAR;
+            case "title" -> TextActionPlan.TextType.TITLE;
+            case "subtitle" -> TextActionPlan.TextType.SUBTITLE;
+            default -> TextActionPlan.TextType.MESSAGE;
+        };
+
+        if (type == TextActionPlan.TextType.MESSAGE || type == TextActionPlan.TextType.ACTIONBAR) {
+            return new TextActionPlan(shiftMs, type, info == null ? "" : String.valueOf(info), "", "", null);
+        }
+
+        String title = "";
+        String subtitle = "";
+        TextActionPlan.Times times = null;
+
+        if (info instanceof List<?> list) {
+            if (!list.isEmpty()) title = String.valueOf(list.get(0));
+            if (list.size() > 1) subtitle = String.valueOf(list.get(1));
+
+            final Duration fi = list.size() > 2 ? seconds(list.get(2)) : null;
+            final Duration st = list.size() > 3 ? seconds(list.get(3)) : null;
+            final Duration fo = list.size() > 4 ? seconds(list.get(4)) : null;
+            if (fi != null || st != null || fo != null) {
+                times = new TextActionPlan.Times(
+                        fi != null ? fi : Duration.ZERO,
+                        st != null ? st : Duration.ofSeconds(2),
+                        fo != null ? fo : Duration.ZERO
+                );
+            }
+        } else if (info != null) {
+            if (type == TextActionPlan.TextType.TITLE) title = String.valueOf(info);
+            else subtitle = String.valueOf(info);
+        }
+
+        return new TextActionPlan(shiftMs, type, "", title, subtitle, times);
+    }
+
+    private static Duration seconds(final Object o) {
+        if (o == null) return null;
+        final long sec = TextSpec.parseSeconds(o, Long.MIN_VALUE);
+        return sec == Long.MIN_VALUE ? null : Duration.ofSeconds(Math.max(0, sec));
+    }
+
+    private static Pattern compileRegex(
+            final String timerId,
+            final String option,
+            final String regex,
+            final Logger logger
+    ) {
+        try {
+            return Pattern.compile(regex);
+        } catch (Exception e) {
+            logger.warn("Timer {}: invalid {} regex '{}': {}", timerId, option, regex, e.getMessage());
+            return null;
+        }
+    }
+}
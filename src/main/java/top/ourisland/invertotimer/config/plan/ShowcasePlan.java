@@ -0,0 +1,38 @@
+package top.ourisland.invertotimer.config.plan;
+
+import top.ourisland.invertotimer.runtime.showcase.ShowcaseType;
+
+/**
+ * A showcase resolved at config load.
+ *
+ * @param key        the config key of the showcase
+ * @param kind       the showcase type
+ * @param startAtMs  how long before the target the showcase starts, or {@code -1} to show it all the time
+ * @param intervalMs refresh interval, with the type default already applied
+ * @param text       text shown up to the target
+ * @param afterText  text shown during the after window, or {@code null} to keep {@code text}
+ * @param afterMs    length of the after window (zero for types that end at the target)
+ * @param color      bossbar color name
+ */
+public record ShowcasePlan(
+        String key,
+        ShowcaseType kind,
+        long startAtMs,
+        long intervalMs,
+        TextSpec text,
+        TextSpec afterText,
+        long afterMs,
+        String color
+) {
+    public boolean hasStartAt() {
+        return startAtMs >= 0;
+    }
+
+    /**
+     * @return the text to show at {@code nowMs} for a target at {@code targetMs}
+     */
+    public TextSpec textAt(final long targetMs, final long nowMs) {
+        if (afterText == null) return text;
+        return nowMs >= targetMs && nowMs <= targetMs + afterMs ? afterText : text;
+    }
+}
@@ -0,0 +1,40 @@
+package top.ourisland.invertotimer.config.plan;
+
+import java.time.Duration;
+
+/**
+ * Plan of a {@code text} action.
+ *
+ * @param shiftMs  offset from the timer target in milliseconds
+ * @param type     where the text is shown
+ * @param info     the text for {@link TextType#MESSAGE} and {@link TextType#ACTIONBAR}
+ * @param title    the title line for {@link TextType#TITLE} and {@link TextType#SUBTITLE}
+ * @param subtitle the subtitle line for {@link TextType#TITLE} and {@link TextType#SUBTITLE}
+ * @param times    explicit title times, or {@code null} for the client defaults
+ */
+public record TextActionPlan(
+        long shiftMs,
+        TextType type,
+        String info,
+        String title,
+        String subtitle,
+        Times times
+) implements ActionPlan {
+
+    public enum TextType {
+        MESSAGE,
+        ACTIONBAR,
+        TITLE,
+        SUBTITLE
+    }
+
+    /**
+     * Title times; unset entries of the config fall back to 0s / 2s / 0s.
+     */
+    public record Times(
+            Duration fadeIn,
+            Duration stay,
+            Duration fadeOut
+    ) {
+    }
+}
@@ -0,0 +1,66 @@
+package top.ourisland.invertotimer.config.plan;
+
+import java.util.List;
+
+/**
+ * A showcase text resolved at config load.
+ * <p>
+ * {@code text} is what single-line showcases display. {@code title}, {@code subtitle} and the fade times are what
+ * the title showcase displays: a list value is read as {@code [title, subtitle, fade-in, stay, fade-out]}, and any
+ * other value is the title alone.
+ *
+ * @param text       the text as a single line
+ * @param title      the title line
+ * @param subtitle   the subtitle line
+ * @param fadeInSec  title fade-in in seconds
+ * @param staySec    title stay time in seconds
+ * @param fadeOutSec title fade-out in seconds
+ */
+public record TextSpec(
+        String text,
+        String title,
+        String subtitle,
+        long fadeInSec,
+        long staySec,
+        long fadeOutSec
+) {
+    public static final TextSpec EMPTY = new TextSpec("", "", "", 0, 2, 0);
+
+    public static TextSpec of(final Object raw) {
+        if (raw == null) return EMPTY;
+
+        String title = "";
+        String subtitle = "";
+        long fadeIn = 0;
+        long stay = 2;
+        long fadeOut = 0;
+
+        if (raw instanceof List<?> list) {
+            if (!list.isEmpty()) title = String.valueOf(list.get(0));
+            if (list.size() > 1) subtitle = String.valueOf(list.get(1));
+            if (list.size() > 2) fadeIn = parseSeconds(list.get(2), 0);
+            if (list.size() > 3) stay = parseSeconds(list.get(3), 2);
+            if (list.size() > 4) fadeOut = parseSeconds(list.get(4), 0);
+        } else {
+            title = String.valueOf(raw);
+        }
+
+        return new TextSpec(
+                String.valueOf(raw),
+                title,
+                subtitle,
+                Math.max(0, fadeIn),
+                Math.max(0, stay),
+                Math.max(0, fadeOut)
+        );
+    }
+
+    static long parseSeconds(final Object o, final long def) {
+        if (o instanceof Number n) return n.longValue();
+        try {
+            return Long.parseLong(String.valueOf(o).trim());
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package top.ourisland.invertotimer.config.plan;
+
+import top.ourisland.invertotimer.config.model.ServerLimitation;
+import top.ourisland.invertotimer.util.Cron5;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable, fully resolved form of a {@link top.ourisland.invertotimer.config.model.TimerConfig}, produced by
+ * {@link PlanCompiler} when the config is loaded.
+ *
+ * @param id             the id of the timer
+ * @param description    human-readable description
+ * @param cron           parsed cron5 specification, or {@code null}
+ * @param time           parsed one-shot target, or {@code null}
+ * @param limitation     whitelist/blacklist of the server
+ * @param showcases      enabled showcases, at most one per type
+ * @param actions        actions sorted by shift (equal shifts keep config order)
+ * @param expireOffsetMs how long after the target the timer still has work: the last action or after window
+ */
+public record TimerPlan(
+        String id,
+        String description,
+        Cron5 cron,
+        LocalDateTime time,
+        ServerLimitation limitation,
+        List<ShowcasePlan> showcases,
+        List<ActionPlan> actions,
+        long expireOffsetMs
+) {
+    public TimerPlan {
+        showcases = List.copyOf(showcases);
+        actions = List.copyOf(actions);
+    }
+}
@@ -0,0 +1,17 @@
+package top.ourisland.invertotimer.config.plan;
+
+import java.util.regex.Pattern;
+
+/**
+ * Plan of a {@code transfer} action.
+ *
+ * @param shiftMs    offset from the timer target in milliseconds
+ * @param target     name of the destination server
+ * @param transferee usernames of the players to transfer
+ */
+public record TransferActionPlan(
+        long shiftMs,
+        String target,
+        Pattern transferee
+) implements ActionPlan {
+}
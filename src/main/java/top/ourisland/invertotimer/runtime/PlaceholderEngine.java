@@ -5,15 +5,17 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import top.ourisland.invertotimer.config.ConfigManager;
-import top.ourisland.invertotimer.config.model.AnimationConfig;
+import top.ourisland.invertotimer.config.plan.AnimationPlan;
 import top.ourisland.invertotimer.util.TimeUtil;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -54,6 +56,13 @@ import java.util.regex.Pattern;
  * {remaining:%d:Days % %hh%:%mm%:%ss%}
  * </pre>
  * Token form {@code %d:Days %} will emit {@code "NDays "} when N&gt;0, otherwise emits empty string.
+ *
+ * <h3>Compiled templates</h3>
+ * Texts are parsed once into a {@link Template}: an immutable list of literal and placeholder nodes with their
+ * arguments already parsed. Templates are cached by source string, so rendering is a single walk over the nodes into a
+ * reused builder. The stages keep the order of the original pipeline: animation frames are expanded first (and their
+ * text may contain i18n tokens and placeholders), then {@code {i18n:key}} (whose text may contain placeholders), then
+ * the plugin placeholders.
  */
 public final class PlaceholderEngine {
 
@@ -61,12 +70,36 @@ public final class PlaceholderEngine {
     private static final Pattern PLACEHOLDER = Pattern.compile("\\{([a-zA-Z0-9_.-]+)(?::([^}]*))?}");
     private static final Pattern ANIMATION = Pattern.compile("\\{animation:([a-zA-Z0-9_.-]+)}");
 
+    private static final int STAGE_ANIMATION = 1;
+    private static final int STAGE_I18N = 2;
+    private static final int STAGE_CORE = 4;
+    private static final int ALL_STAGES = STAGE_ANIMATION | STAGE_I18N | STAGE_CORE;
+
+    private static final int USES_TIME = 1;
+    private static final int USES_ID = 2;
+    private static final int USES_DESCRIPTION = 4;
+    private static final int USES_TARGET = 8;
+    private static final int USES_ALL = USES_TIME | USES_ID | USES_DESCRIPTION | USES_TARGET;
+
+    private static final int MAX_CACHED_TEMPLATES = 4096;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
     private final ConfigManager configManager;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private volatile Timelines timelines = Timelines.EMPTY;
+    private final Map<String, Template> i18nTemplates = new ConcurrentHashMap<>();
 
     public PlaceholderEngine(final ConfigManager configManager) {
         this.configManager = configManager;
     }
 
+    /**
+     * @return the compiled form of {@code input}, from the template cache
+     */
+    public Template compile(final String input) {
+        return cached(templates, input == null ? "" : input, ALL_STAGES);
+    }
+
     /**
      * Render a player-visible MiniMessage text to {@link Component}.
      * <p>
@@ -84,13 +117,31 @@ public final class PlaceholderEngine {
             final TagResolver resolver,
             final Context ctx
     ) {
-        String s = apply(input, ctx);
+        return renderToComponent(compile(input), audience, resolver, ctx);
+    }
+
+    public Component renderToComponent(
+            final Template template,
+            final Audience audience,
+            final TagResolver resolver,
+            final Context ctx
+    ) {
+        return deserialize(apply(template, ctx), audience, resolver);
+    }
+
+    /**
+     * MiniMessage deserialize a text that already went through {@link #apply(Template, Context)}.
+     * <p>
+     * Texts without {@code <} or {@code \} cannot contain tags or escapes and skip the parser and resolvers.
+     */
+    public Component deserialize(final String applied, final Audience audience, final TagResolver resolver) {
+        if (isPlain(applied)) return applied.isEmpty() ? Component.empty() : Component.text(applied);
 
         TagResolver r = (resolver == null) ? TagResolver.empty() : resolver;
         if (audience != null) {
-            return MiniMessage.miniMessage().deserialize(s, audience, r);
+            return MiniMessage.miniMessage().deserialize(applied, audience, r);
         }
-        return MiniMessage.miniMessage().deserialize(s, r);
+        return MiniMessage.miniMessage().deserialize(applied, r);
     }
 
     /**
@@ -100,33 +151,18 @@ public final class PlaceholderEngine {
      */
     public String apply(final String input, final Context ctx) {
         if (input == null) return "";
-
-        // 1) animation first, so inserted frame text can be further processed
-        String s = expandAnimations(input, ctx);
-
-        // 2) i18n replacement (works for both original and animation frame text)
-        s = replaceI18n(s);
-
-        // 3) core placeholders
-        return replaceCore(s, ctx);
+        return apply(compile(input), ctx);
     }
 
-    private String expandAnimations(final String input, final Context ctx) {
-        Matcher m = ANIMATION.matcher(input);
-        if (!m.find()) return input;
+    public String apply(final Template template, final Context ctx) {
+        if (template.constant != null) return template.constant;
 
-        StringBuilder sb = new StringBuilder();
-        int last = 0;
-
-        do {
-            sb.append(input, last, m.start());
-            String id = m.group(1);
-            sb.append(animationFrameText(id, ctx));
-            last = m.end();
-        } while (m.find());
-
-        sb.append(input, last, input.length());
-        return sb.toString();
+        final StringBuilder sb = BUILDER.get();
+        sb.setLength(0);
+        append(sb, template, ctx);
+        final String out = sb.toString();
+        if (sb.capacity() > 8192) BUILDER.remove();
+        return out;
     }
 
     /**
@@ -138,95 +174,131 @@ public final class PlaceholderEngine {
         StringBuilder sb = new StringBuilder();
 
         while (m.find()) {
-            String key = m.group(1);
-            String rep;
-            try {
-                rep = I18n.langStrNP(key);
-            } catch (Exception e) {
-                rep = "{missing:" + key + "}";
-            }
-            m.appendReplacement(sb, Matcher.quoteReplacement(rep));
+            m.appendReplacement(sb, Matcher.quoteReplacement(i18nText(m.group(1))));
         }
         m.appendTail(sb);
         return sb.toString();
     }
 
-    private static String replaceCore(final String input, final Context ctx) {
-        Matcher m = PLACEHOLDER.matcher(input);
-        if (!m.find()) return input;
-
-        StringBuilder sb = new StringBuilder();
-        int last = 0;
-
-        do {
-            sb.append(input, last, m.start());
-
-            String key = m.group(1);
-            String arg = m.group(2);
-
-            String rep = resolve(key, arg, ctx);
-            if (rep == null) {
-                sb.append(m.group(0));
-            } else {
-                sb.append(rep);
+    /**
+     * Build the {@link RenderCache} key of {@code template} under {@code ctx}. Renders with equal keys produce the same
+     * text; only the context values the template can reach are part of it, so e.g. {@code {remaining}} is shared by
+     * every timer with the same remaining seconds, and an animation frame without placeholders is rendered once for as
+     * long as it stays in the cache. Texts pulled in by {@code {i18n:..}} are not inspected, so templates using them
+     * are keyed on every context value.
+     */
+    RenderCache.Key renderKey(final Template template, final Context ctx, final Object resolver) {
+        int uses = template.uses;
+        long frames = -1;
+        if (!template.animations.isEmpty()) {
+            final Map<String, Timeline> byId = timelines();
+            frames = 0;
+            for (String id : template.animations) {
+                final Timeline t = byId.get(id);
+                if (t == null) continue;
+                uses |= t.uses();
+                // mixed radix, one digit per animation
+                frames = frames * t.frames().length + t.plan().frameAt(ctx.now().toEpochMilli());
             }
+        }
 
-            last = m.end();
-        } while (m.find());
-
-        sb.append(input, last, input.length());
-        return sb.toString();
+        return new RenderCache.Key(
+                template,
+                (uses & USES_TIME) != 0 ? ctx.remainingSeconds() : -1,
+                frames,
+                (uses & USES_ID) != 0 ? ctx.id() : null,
+                (uses & USES_DESCRIPTION) != 0 ? ctx.description() : null,
+                (uses & USES_TARGET) != 0 ? ctx.targetText() : null,
+                resolver
+        );
     }
 
-    private String animationFrameText(final String id, final Context ctx) {
-        if (id == null || id.isBlank()) return "";
-        Map<String, AnimationConfig> animations = configManager.animations();
-        if (animations == null) return "";
-
-        AnimationConfig cfg = animations.get(id);
-        if (cfg == null) return "";
-
-        long total = Math.max(1, cfg.totalDurationMs());
-        long offset = Math.floorMod(ctx.now().toEpochMilli(), total);
+    /**
+     * The next instant at which rendering {@code template} can give a different text than under {@code ctx}: the next
+     * change of the remaining seconds if the template shows time, or the next frame of an animation it uses.
+     *
+     * @return epoch milliseconds, or {@link Long#MAX_VALUE} if the text only changes with the target or the config
+     */
+    public long nextChangeMs(final Template template, final Context ctx) {
+        final long nowMs = ctx.now().toEpochMilli();
+        long next = Long.MAX_VALUE;
+
+        int uses = template.uses;
+        if (!template.animations.isEmpty()) {
+            final Map<String, Timeline> byId = timelines();
+            for (String id : template.animations) {
+                final Timeline t = byId.get(id);
+                if (t == null) continue;
+                uses |= t.uses();
+                next = Math.min(next, t.plan().nextFrameMs(nowMs));
+            }
+        }
 
-        long acc = 0;
-        for (AnimationConfig.Frame f : cfg.frames()) {
-            long dur = Math.max(1, f.durationMs());
-            acc += dur;
-            if (offset < acc) return safe(f.text());
+        if ((uses & USES_TIME) != 0 && ctx.target() != null) {
+            next = Math.min(next, TimeUtil.nextSecondBoundaryMs(nowMs, ctx.target().toInstant().toEpochMilli()));
         }
-        return safe(cfg.frames().isEmpty() ? "" : cfg.frames().getFirst().text());
+        return next;
     }
 
-    private static String resolve(final String keyRaw, final String arg, final Context ctx) {
-        if (keyRaw == null) return null;
-
-        String key = keyRaw.toLowerCase(Locale.ROOT);
-
-        return switch (key) {
-            case "id" -> safe(ctx.id());
-            case "description" -> safe(ctx.description());
-            case "target" -> safe(ctx.targetText());
-
-            case "total_seconds" -> String.valueOf(ctx.remainingSeconds());
+    /**
+     * Every published snapshot carries its own timelines map, also when only config.yml or a timer file was reloaded,
+     * so a new map is first compared plan by plan and the compiled frames are kept if no animation changed.
+     *
+     * @return the animation timelines of the current config, with their frames compiled
+     */
+    private Map<String, Timeline> timelines() {
+        final Map<String, AnimationPlan> source = configManager.timelines();
+        Timelines t = timelines;
+        if (t.source() != source) {
+            t = t.compiledFrom(source) ? new Timelines(source, t.byId()) : Timelines.compile(source);
+            timelines = t;
+        }
+        return t.byId();
+    }
 
-            case "days" -> formatUnit(ctx.days(), arg, 'd');
-            case "hours" -> formatUnit(ctx.hoursPart(), arg, 'h');
-            case "minutes" -> formatUnit(ctx.minutesPart(), arg, 'm');
-            case "seconds" -> formatUnit(ctx.secondsPart(), arg, 's');
+    private static boolean isPlain(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '<' || c == '\\') return false;
+        }
+        return true;
+    }
 
-            case "remaining" -> formatRemaining(ctx, arg);
+    private static String i18nText(final String key) {
+        try {
+            return I18n.langStrNP(key);
+        } catch (Exception e) {
+            return "{missing:" + key + "}";
+        }
+    }
 
-            // handled elsewhere in this engine:
-            case "i18n" -> null;
-            case "animation" -> null;
+    private static Template cached(final Map<String, Template> cache, final String source, final int stages) {
+        final Template t = cache.get(source);
+        if (t != null) return t;
 
-            default -> null;
-        };
+        if (cache.size() >= MAX_CACHED_TEMPLATES) cache.clear();
+        return cache.computeIfAbsent(source, src -> Template.parse(src, stages));
     }
 
-    private static String safe(String s) {
-        return s == null ? "" : s;
+    private void append(final StringBuilder sb, final Template template, final Context ctx) {
+        for (Node n : template.nodes) {
+            switch (n) {
+                case Literal l -> sb.append(l.text());
+                case AnimationRef a -> {
+                    final Timeline t = timelines().get(a.id());
+                    if (t != null) append(sb, t.frames()[t.plan().frameAt(ctx.now().toEpochMilli())], ctx);
+                }
+                case I18nRef i -> append(sb, cached(i18nTemplates, i18nText(i.key()), STAGE_CORE), ctx);
+                case Field f -> sb.append(switch (f.kind()) {
+                    case ID -> safe(ctx.id());
+                    case DESCRIPTION -> safe(ctx.description());
+                    case TARGET -> safe(ctx.targetText());
+                });
+                case TotalSeconds ignored -> sb.append(ctx.remainingSeconds());
+                case Unit u -> appendUnit(sb, u, ctx);
+                case Remaining r -> appendRemaining(sb, r.format(), ctx);
+            }
+        }
     }
 
     /**
@@ -245,19 +317,25 @@ public final class PlaceholderEngine {
      *   <li>Backward compatible with old {@code {days: 天}} form.</li>
      * </ul>
      */
-    private static String formatUnit(final long value, final String arg, final char unitLetter) {
-        UnitArg ua = UnitArg.parse(arg, unitLetter);
+    private static void appendUnit(final StringBuilder sb, final Unit u, final Context ctx) {
+        final long value = switch (u.unit()) {
+            case 'd' -> ctx.days();
+            case 'h' -> ctx.hoursPart();
+            case 'm' -> ctx.minutesPart();
+            default -> ctx.secondsPart();
+        };
 
-        if (!ua.suffix.isEmpty() && value <= 0) return "";
+        final UnitArg ua = u.arg();
+        if (!ua.suffix().isEmpty() && value <= 0) return;
 
-        String num = toPaddedNumber(value, ua.width);
-        return num + ua.suffix;
+        TimeUtil.appendPadded(sb, value, ua.width());
+        sb.append(ua.suffix());
     }
 
     /**
      * Format remaining time.
      * <p>
-     * No arg: {@link TimeUtil#formatHMS(long)}
+     * No arg: {@link TimeUtil#appendHMS(StringBuilder, long)}
      * <p>
      * With arg: ONLY parts wrapped by {@code %...%} are replaced. Everything else is literal.
      * <p>
@@ -270,26 +348,29 @@ public final class PlaceholderEngine {
      * </ul>
      * Optional suffix+hide-when-zero inside token: {@code %d:Days %}.
      */
-    private static String formatRemaining(final Context ctx, final String format) {
-        long sec = ctx.remainingSeconds();
-        if (format == null || format.isBlank()) return TimeUtil.formatHMS(sec);
-
-        RemainingFormat rf = RemainingFormat.parse(format);
+    private static void appendRemaining(final StringBuilder sb, final RemainingFormat rf, final Context ctx) {
+        if (rf == null) {
+            TimeUtil.appendHMS(sb, ctx.remainingSeconds());
+            return;
+        }
 
-        StringBuilder out = new StringBuilder();
+        final int start = sb.length();
         for (Piece p : rf.pieces) {
             if (p.kind == Kind.LITERAL) {
-                out.append(p.literal);
-                continue;
+                sb.append(p.literal);
+            } else {
+                appendRemainingToken(sb, ctx, rf, p);
             }
-            out.append(formatRemainingToken(ctx, rf, p));
         }
-        return out.toString().trim();
+        trim(sb, start);
     }
 
-    private static String formatRemainingToken(final Context ctx, final RemainingFormat rf, final Piece p) {
-        if (p.kind != Kind.UNIT) return "";
-
+    private static void appendRemainingToken(
+            final StringBuilder sb,
+            final Context ctx,
+            final RemainingFormat rf,
+            final Piece p
+    ) {
         long v;
         switch (p.unit) {
             case 'd' -> v = ctx.days();
@@ -298,21 +379,229 @@ public final class PlaceholderEngine {
             case 's' ->
                     v = (rf.usesDays || rf.usesHours || rf.usesMinutes) ? ctx.secondsPart() : ctx.remainingSeconds();
             default -> {
-                return "";
+                return;
+            }
+        }
+
+        if (p.hideWhenZero && v <= 0) return;
+
+        TimeUtil.appendPadded(sb, v, p.width);
+        sb.append(p.suffix);
+    }
+
+    /**
+     * {@link String#trim()} applied to {@code sb[start..]} in place.
+     */
+    private static void trim(final StringBuilder sb, final int start) {
+        int end = sb.length();
+        while (end > start && sb.charAt(end - 1) <= ' ') end--;
+        sb.setLength(end);
+
+        int from = start;
+        while (from < end && sb.charAt(from) <= ' ') from++;
+        if (from > start) sb.delete(start, from);
+    }
+
+    private static String safe(String s) {
+        return s == null ? "" : s;
+    }
+
+    /**
+     * An immutable, pre-parsed text. Obtain one with {@link #compile(String)}.
+     */
+    public static final class Template {
+        private final List<Node> nodes;
+        /**
+         * The rendered text if the template has no placeholders at all, otherwise {@code null}.
+         */
+        private final String constant;
+        /**
+         * {@code USES_*} bits of the context values this template reads.
+         */
+        private final int uses;
+        /**
+         * Ids of the animations this template expands, in order.
+         */
+        private final List<String> animations;
+
+        private Template(final List<Node> nodes) {
+            this.nodes = List.copyOf(nodes);
+
+            int u = 0;
+            final List<String> anims = new ArrayList<>();
+            for (Node n : nodes) {
+                switch (n) {
+                    case Literal ignored -> {
+                    }
+                    case AnimationRef a -> anims.add(a.id());
+                    case I18nRef ignored -> u = USES_ALL;
+                    case Field f -> u |= switch (f.kind()) {
+                        case ID -> USES_ID;
+                        case DESCRIPTION -> USES_DESCRIPTION;
+                        case TARGET -> USES_TARGET;
+                    };
+                    case TotalSeconds ignored -> u |= USES_TIME;
+                    case Unit ignored -> u |= USES_TIME;
+                    case Remaining ignored -> u |= USES_TIME;
+                }
+            }
+            this.uses = u;
+            this.animations = List.copyOf(anims);
+
+            if (nodes.isEmpty()) {
+                this.constant = "";
+            } else if (nodes.size() == 1 && nodes.getFirst() instanceof Literal l) {
+                this.constant = l.text();
+            } else {
+                this.constant = null;
+            }
+        }
+
+        private static Template parse(final String source, final int stages) {
+            final List<Node> nodes = new ArrayList<>();
+            parseStage(source, stages, nodes);
+            return new Template(mergeLiterals(nodes));
+        }
+
+        /**
+         * Split {@code text} by the first enabled stage's tokens and hand the literal gaps to the next stage, so
+         * tokens are recognized in the same order as the original regex pipeline.
+         */
+        private static void parseStage(final String text, final int stages, final List<Node> out) {
+            if (text.isEmpty()) return;
+
+            final Pattern pattern;
+            final int rest;
+            if ((stages & STAGE_ANIMATION) != 0) {
+                pattern = ANIMATION;
+                rest = stages & ~STAGE_ANIMATION;
+            } else if ((stages & STAGE_I18N) != 0) {
+                pattern = I18N_TOKEN;
+                rest = stages & ~STAGE_I18N;
+            } else if ((stages & STAGE_CORE) != 0) {
+                pattern = PLACEHOLDER;
+                rest = 0;
+            } else {
+                out.add(new Literal(text));
+                return;
+            }
+
+            final Matcher m = pattern.matcher(text);
+            int last = 0;
+            while (m.find()) {
+                parseStage(text.substring(last, m.start()), rest, out);
+                out.add(token(pattern, m));
+                last = m.end();
+            }
+            parseStage(text.substring(last), rest, out);
+        }
+
+        private static Node token(final Pattern pattern, final Matcher m) {
+            if (pattern == ANIMATION) return new AnimationRef(m.group(1));
+            if (pattern == I18N_TOKEN) return new I18nRef(m.group(1));
+
+            final String arg = m.group(2);
+            return switch (m.group(1).toLowerCase(Locale.ROOT)) {
+                case "id" -> new Field(FieldKind.ID);
+                case "description" -> new Field(FieldKind.DESCRIPTION);
+                case "target" -> new Field(FieldKind.TARGET);
+                case "total_seconds" -> new TotalSeconds();
+                case "days" -> new Unit('d', UnitArg.parse(arg, 'd'));
+                case "hours" -> new Unit('h', UnitArg.parse(arg, 'h'));
+                case "minutes" -> new Unit('m', UnitArg.parse(arg, 'm'));
+                case "seconds" -> new Unit('s', UnitArg.parse(arg, 's'));
+                case "remaining" -> new Remaining(arg == null || arg.isBlank() ? null : RemainingFormat.parse(arg));
+                // unknown placeholders (and i18n/animation tokens in other stages) stay as written
+                default -> new Literal(m.group(0));
+            };
+        }
+
+        private static List<Node> mergeLiterals(final List<Node> nodes) {
+            final List<Node> out = new ArrayList<>(nodes.size());
+            for (Node n : nodes) {
+                if (n instanceof Literal l && !out.isEmpty() && out.getLast() instanceof Literal prev) {
+                    out.set(out.size() - 1, new Literal(prev.text() + l.text()));
+                } else {
+                    out.add(n);
+                }
+            }
+            return out;
+        }
+    }
+
+    /**
+     * An animation with every frame compiled.
+     *
+     * @param frames the frame templates, by frame index
+     * @param uses   {@code USES_*} bits of all frames combined
+     */
+    private record Timeline(AnimationPlan plan, Template[] frames, int uses) {
+    }
+
+    /**
+     * The timelines compiled from one {@link ConfigManager#timelines()} map, rebuilt when the config publishes a new
+     * one.
+     */
+    private record Timelines(Map<String, AnimationPlan> source, Map<String, Timeline> byId) {
+        static final Timelines EMPTY = new Timelines(null, Map.of());
+
+        static Timelines compile(final Map<String, AnimationPlan> source) {
+            final Map<String, Timeline> byId = new HashMap<>();
+            if (source != null) {
+                for (Map.Entry<String, AnimationPlan> e : source.entrySet()) {
+                    final AnimationPlan plan = e.getValue();
+                    final Template[] frames = new Template[plan.size()];
+                    int uses = 0;
+                    for (int i = 0; i < frames.length; i++) {
+                        frames[i] = Template.parse(plan.texts().get(i), STAGE_I18N | STAGE_CORE);
+                        uses |= frames[i].uses;
+                    }
+                    byId.put(e.getKey(), new Timeline(plan, frames, uses));
+                }
+            }
+            return new Timelines(source, byId);
+        }
+
+        /**
+         * @return whether these timelines were compiled from exactly the plans of {@code other}
+         */
+        boolean compiledFrom(final Map<String, AnimationPlan> other) {
+            if (source == null || other == null || other.size() != byId.size()) return false;
+            for (Map.Entry<String, AnimationPlan> e : other.entrySet()) {
+                final Timeline t = byId.get(e.getKey());
+                if (t == null || t.plan() != e.getValue()) return false;
             }
+            return true;
         }
+    }
+
+    private sealed interface Node permits Literal, AnimationRef, I18nRef, Field, TotalSeconds, Unit, Remaining {
+    }
+
+    private record Literal(String text) implements Node {
+    }
+
+    private record AnimationRef(String id) implements Node {
+    }
+
+    private record I18nRef(String key) implements Node {
+    }
 
-        if (p.hideWhenZero && v <= 0) return "";
+    private enum FieldKind {ID, DESCRIPTION, TARGET}
+
+    private record Field(FieldKind kind) implements Node {
+    }
 
-        String num = toPaddedNumber(v, p.width);
-        return num + p.suffix;
+    private record TotalSeconds() implements Node {
     }
 
-    private static String toPaddedNumber(long v, int width) {
-        String s = String.valueOf(v);
-        if (width <= 1) return s;
-        if (s.length() >= width) return s;
-        return "0".repeat(width - s.length()) + s;
+    private record Unit(char unit, UnitArg arg) implements Node {
+    }
+
+    /**
+     * @param format the parsed format, or {@code null} for the default {@code HH:MM:SS} form
+     */
+    private record Remaining(RemainingFormat format) implements Node {
     }
 
     private enum Kind {LITERAL, UNIT}
@@ -0,0 +1,49 @@
+package top.ourisland.invertotimer.runtime;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.slf4j.Logger;
+
+/**
+ * MiniMessage tag resolvers shared by every {@link RuntimeContext}.
+ * <p>
+ * Built once per plugin lifecycle, so the MiniPlaceholders lookup and the resolver composition do not happen per timer
+ * or per render.
+ *
+ * @param global   resolver for tags that do not need a player
+ * @param audience resolver for tags that need a player
+ * @param player   {@code global} and {@code audience} combined, used when rendering for one player
+ */
+public record PlaceholderTags(TagResolver global, TagResolver audience, TagResolver player) {
+    public static PlaceholderTags none() {
+        return new PlaceholderTags(TagResolver.empty(), TagResolver.empty(), TagResolver.empty());
+    }
+
+    /**
+     * Use the MiniPlaceholders resolvers if that plugin is installed, otherwise {@link #none()}.
+     */
+    public static PlaceholderTags detect(final ProxyServer proxy, final Logger logger) {
+        if (proxy.getPluginManager().getPlugin("miniplaceholders").isEmpty()) return none();
+
+        try {
+            MiniPlaceholdersHook hook = new MiniPlaceholdersHook();
+            logger.info("MiniPlaceholders detected: placeholder tags are enabled.");
+            return new PlaceholderTags(
+                    hook.global(),
+                    hook.audience(),
+                    TagResolver.resolver(hook.global(), hook.audience())
+            );
+        } catch (Throwable t) {
+            logger.warn("MiniPlaceholders detected but failed to initialize integration. Continuing without it.", t);
+            return none();
+        }
+    }
+
+    public boolean hasGlobalTags() {
+        return global != TagResolver.empty();
+    }
+
+    public boolean hasAudienceTags() {
+        return audience != TagResolver.empty();
+    }
+}
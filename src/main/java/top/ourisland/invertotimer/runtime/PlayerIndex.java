@@ -0,0 +1,195 @@
+package top.ourisland.invertotimer.runtime;
+
+import com.velocitypowered.api.proxy.Player;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Online players grouped by the backend server they are on.
+ * <p>
+ * The index is maintained from connection events, so finding the players a timer may show to does not require asking
+ * every player for their current server. Server names are lower-cased once when a player connects, and each timer
+ * resolves its server limitations against the index once (see {@link Selection}) instead of per player and render.
+ * <p>
+ * Players that are not on a server yet are kept in their own group; limitations never exclude them.
+ */
+public final class PlayerIndex {
+    private final Map<String, Set<Player>> byServer = new ConcurrentHashMap<>();
+    private final Set<Player> unassigned = ConcurrentHashMap.newKeySet();
+    private final Map<Player, String> serverOf = new ConcurrentHashMap<>();
+    /**
+     * Bumped whenever a server group is added, so selections know to resolve again.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Re-index {@code players} from their current server, e.g. for players that were online before the plugin
+     * started.
+     */
+    public synchronized void rebuild(final Collection<Player> players) {
+        byServer.values().forEach(Set::clear);
+        unassigned.clear();
+        serverOf.clear();
+
+        for (Player p : players) {
+            final String server = p.getCurrentServer()
+                    .map(c -> c.getServerInfo().getName())
+                    .orElse(null);
+            if (server == null) {
+                join(p);
+            } else {
+                connect(p, server);
+            }
+        }
+    }
+
+    /**
+     * Track a player that logged in but is not on a server yet.
+     */
+    public synchronized void join(final Player p) {
+        if (serverOf.containsKey(p)) return;
+        unassigned.add(p);
+    }
+
+    /**
+     * Move a player to {@code serverName}.
+     */
+    public synchronized void connect(final Player p, final String serverName) {
+        final String key = serverName.toLowerCase(Locale.ROOT);
+        final String previous = serverOf.put(p, key);
+        if (key.equals(previous)) return;
+
+        if (previous == null) {
+            unassigned.remove(p);
+        } else {
+            byServer.get(previous).remove(p);
+        }
+        group(key).add(p);
+    }
+
+    public synchronized void remove(final Player p) {
+        final String previous = serverOf.remove(p);
+        if (previous == null) {
+            unassigned.remove(p);
+        } else {
+            byServer.get(previous).remove(p);
+        }
+    }
+
+    private Set<Player> group(final String key) {
+        Set<Player> players = byServer.get(key);
+        if (players == null) {
+            players = ConcurrentHashMap.newKeySet();
+            byServer.put(key, players);
+            version.incrementAndGet();
+        }
+        return players;
+    }
+
+    /**
+     * @param serverAllowed tells for a lower-cased server name whether its players are selected
+     * @return a live view of the players on the allowed servers
+     */
+    public Selection select(final Predicate<String> serverAllowed) {
+        return new Selection(serverAllowed);
+    }
+
+    /**
+     * The players on a set of servers. The server test runs once per server and is cached until {@link #invalidate()}
+     * or until a new server shows up in the index.
+     */
+    public final class Selection {
+        private final Predicate<String> serverAllowed;
+        private volatile Resolved resolved;
+
+        private Selection(final Predicate<String> serverAllowed) {
+            this.serverAllowed = serverAllowed;
+        }
+
+        /**
+         * Forget the resolved servers, e.g. after the limitations changed.
+         */
+        public void invalidate() {
+            resolved = null;
+        }
+
+        /**
+         * @return the selected players; iterating only touches the allowed server groups
+         */
+        public Collection<Player> players() {
+            return resolve().players();
+        }
+
+        public boolean contains(final Player p) {
+            final String key = serverOf.get(p);
+            if (key == null) return unassigned.contains(p);
+            return resolve().servers().contains(key);
+        }
+
+        private Resolved resolve() {
+            Resolved r = resolved;
+            final long v = version.get();
+            if (r != null && r.version() == v) return r;
+
+            final Set<String> servers = new HashSet<>();
+            final List<Set<Player>> groups = new ArrayList<>();
+            groups.add(unassigned);
+            for (Map.Entry<String, Set<Player>> e : byServer.entrySet()) {
+                if (!serverAllowed.test(e.getKey())) continue;
+                servers.add(e.getKey());
+                groups.add(e.getValue());
+            }
+
+            r = new Resolved(v, servers, new Players(groups));
+            resolved = r;
+            return r;
+        }
+    }
+
+    private record Resolved(long version, Set<String> servers, Players players) {
+    }
+
+    /**
+     * Read-only concatenation of the selected server groups.
+     */
+    private static final class Players extends AbstractCollection<Player> {
+        private final List<Set<Player>> groups;
+
+        private Players(final List<Set<Player>> groups) {
+            this.groups = groups;
+        }
+
+        @Override
+        public Iterator<Player> iterator() {
+            return new Iterator<>() {
+                private int group;
+                private Iterator<Player> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext()) {
+                        if (group >= groups.size()) return false;
+                        current = groups.get(group++).iterator();
+                    }
+                    return true;
+                }
+
+                @Override
+                public Player next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return current.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            int n = 0;
+            for (Set<Player> g : groups) n += g.size();
+            return n;
+        }
+    }
+}
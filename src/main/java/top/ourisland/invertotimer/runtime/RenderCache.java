@@ -0,0 +1,91 @@
+package top.ourisland.invertotimer.runtime;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of rendered texts, shared by every timer.
+ * <p>
+ * Entries are keyed by {@link PlaceholderEngine#renderKey}: the compiled template plus only those context values the
+ * template can reach (remaining seconds, animation frames, timer fields) and the tag resolver. Showcases of different
+ * timers that show the same text in the same second therefore run the placeholder pipeline and MiniMessage once.
+ * Texts using MiniPlaceholders tags only cache the applied text; their components are built on every render, so the
+ * tags stay live.
+ * <p>
+ * The cache must be {@linkplain #clear() cleared} when animations or the language change, since those are not part of
+ * the key.
+ */
+public final class RenderCache {
+    private final int capacity;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public RenderCache(final int capacity) {
+        this.capacity = Math.max(16, capacity);
+        this.entries = new LinkedHashMap<>(this.capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if (size() <= RenderCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    synchronized Entry get(final Key key) {
+        final Entry e = entries.get(key);
+        if (e == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return e;
+    }
+
+    synchronized void put(final Key key, final Entry entry) {
+        entries.put(key, entry);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    public synchronized RenderCacheStats stats() {
+        return new RenderCacheStats(hits, misses, evictions, entries.size(), capacity);
+    }
+
+    /**
+     * Cache key, see {@link PlaceholderEngine#renderKey}. Values the template does not use are {@code -1} or
+     * {@code null}.
+     */
+    record Key(
+            PlaceholderEngine.Template template,
+            long remainingSeconds,
+            long frames,
+            String id,
+            String description,
+            String targetText,
+            Object resolver
+    ) {
+    }
+
+    /**
+     * @param applied  the text after placeholders were applied
+     * @param shared   the component for every player, or {@code null} if it must be deserialized on every render
+     *                 because the text uses MiniPlaceholders tags, whose values are not part of the key
+     * @param audience whether the text uses an audience tag and has to be deserialized per player
+     */
+    record Entry(String applied, Component shared, boolean audience) {
+    }
+}
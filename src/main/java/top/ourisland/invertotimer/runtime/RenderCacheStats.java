@@ -0,0 +1,23 @@
+package top.ourisland.invertotimer.runtime;
+
+/**
+ * Statistics of the {@link RenderCache}.
+ *
+ * @param hits      lookups answered from the cache
+ * @param misses    lookups that had to render
+ * @param evictions entries dropped to stay within the capacity
+ * @param size      current number of entries
+ * @param capacity  maximum number of entries
+ */
+public record RenderCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        int size,
+        int capacity
+) {
+    public double hitRatePercent() {
+        final long total = hits + misses;
+        return total == 0 ? 0.0 : hits * 100.0 / total;
+    }
+}
@@ -0,0 +1,41 @@
+package top.ourisland.invertotimer.runtime;
+
+import com.velocitypowered.api.proxy.Player;
+import net.kyori.adventure.text.Component;
+
+import java.util.function.Function;
+
+/**
+ * A text rendered once for the current tick, see {@link RuntimeContext#prepare(String)}.
+ * <p>
+ * If the text does not depend on the audience, every player gets the same {@link Component} instance. Otherwise only
+ * the MiniMessage step is repeated per player.
+ */
+public final class RenderedText {
+    private final Component shared;
+    private final Function<Player, Component> perPlayer;
+
+    private RenderedText(final Component shared, final Function<Player, Component> perPlayer) {
+        this.shared = shared;
+        this.perPlayer = perPlayer;
+    }
+
+    static RenderedText shared(final Component component) {
+        return new RenderedText(component, null);
+    }
+
+    static RenderedText perPlayer(final Function<Player, Component> renderer) {
+        return new RenderedText(null, renderer);
+    }
+
+    /**
+     * @return whether {@link #forPlayer(Player)} returns the same component for everyone
+     */
+    public boolean isShared() {
+        return shared != null;
+    }
+
+    public Component forPlayer(final Player player) {
+        return shared != null ? shared : perPlayer.apply(player);
+    }
+}
@@ -9,7 +9,7 @@ import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import org.slf4j.Logger;
 
 import java.util.Collection;
-import java.util.function.Predicate;
+import java.util.Locale;
 import java.util.function.Supplier;
 
 /**
@@ -17,63 +17,56 @@ import java.util.function.Supplier;
  * <p>
  * This context provides:
  * <ul>
- *   <li>player selection and limitation checks</li>
+ *   <li>player selection and limitation checks, backed by the {@link PlayerIndex}</li>
  *   <li>ONE unified rendering entry via {@link PlaceholderEngine}</li>
  *   <li>optional MiniPlaceholders support via MiniMessage TagResolver</li>
  * </ul>
+ * <p>
+ * Showcases and actions that send the same text to many players should use {@link #prepare(String)}: placeholders
+ * are applied once, and unless the text uses an audience placeholder tag it is also deserialized once and the same
+ * component is sent to everyone.
  */
 public final class RuntimeContext {
     @Getter
     private final ProxyServer proxy;
-    private final Predicate<Player> allowed;
+    private final PlayerIndex.Selection audience;
 
     private final PlaceholderEngine engine;
+    private final RenderCache renderCache;
     private final Supplier<PlaceholderEngine.Context> ctxSupplier;
 
-    private final TagResolver mpGlobal;
-    private final TagResolver mpAudience;
+    private final PlaceholderTags tags;
 
     @Getter
     private final Logger logger;
 
     public RuntimeContext(
             @NonNull ProxyServer proxy,
-            @NonNull Predicate<Player> allowed,
+            @NonNull PlayerIndex.Selection audience,
             @NonNull PlaceholderEngine engine,
+            @NonNull RenderCache renderCache,
+            @NonNull PlaceholderTags tags,
             @NonNull Supplier<PlaceholderEngine.Context> ctxSupplier,
             @NonNull Logger logger
     ) {
         this.proxy = proxy;
-        this.allowed = allowed;
+        this.audience = audience;
         this.engine = engine;
+        this.renderCache = renderCache;
         this.ctxSupplier = ctxSupplier;
-
-        TagResolver g = TagResolver.empty();
-        TagResolver a = TagResolver.empty();
-
-        if (proxy.getPluginManager().getPlugin("miniplaceholders").isPresent()) {
-            try {
-                MiniPlaceholdersHook hook = new MiniPlaceholdersHook();
-                g = hook.global();
-                a = hook.audience();
-                logger.info("MiniPlaceholders detected: placeholder tags are enabled.");
-            } catch (Throwable t) {
-                logger.warn("MiniPlaceholders detected but failed to initialize integration. Continuing without it.", t);
-            }
-        }
-
-        this.mpGlobal = g;
-        this.mpAudience = a;
-
+        this.tags = tags;
         this.logger = logger;
     }
 
+    /**
+     * @return the online players on servers this timer may show to; no further {@link #allowed(Player)} check needed
+     */
     public Collection<Player> players() {
-        return proxy.getAllPlayers();
+        return audience.players();
     }
 
     public boolean allowed(Player p) {
-        return allowed.test(p);
+        return audience.contains(p);
     }
 
     public Component render(String text) {
@@ -86,13 +79,86 @@ public final class RuntimeContext {
     public Component render(Player player, String text) {
         final PlaceholderEngine.Context ctx = ctxSupplier.get();
 
-        TagResolver resolver = (player == null)
-                ? TagResolver.resolver(mpGlobal)
-                : TagResolver.resolver(mpGlobal, mpAudience);
+        TagResolver resolver = (player == null) ? tags.global() : tags.player();
 
         return engine.renderToComponent(text, player, resolver, ctx);
     }
 
+    /**
+     * Render a player-visible text once for the current tick.
+     * <p>
+     * The result is shared by all players unless the text (after placeholders and animations were applied) contains
+     * a MiniPlaceholders audience tag, in which case each player still gets their own component.
+     * <p>
+     * Results are looked up in the shared {@link RenderCache} first. Texts with MiniPlaceholders tags only reuse the
+     * applied text from it and are deserialized again, since the tag values can change at any time.
+     */
+    public RenderedText prepare(String text) {
+        return prepare(text, ctxSupplier.get());
+    }
+
+    /**
+     * {@link #prepare(String)} with the placeholder values of {@code ctx} instead of the current tick's, for renders
+     * that run outside the tick (see {@link top.ourisland.invertotimer.action.Action#execute}).
+     */
+    public RenderedText prepare(String text, PlaceholderEngine.Context ctx) {
+        final PlaceholderEngine.Template template = engine.compile(text);
+        final RenderCache.Key key = engine.renderKey(template, ctx, tags.global());
+
+        RenderCache.Entry entry = renderCache.get(key);
+        if (entry == null) {
+            final String applied = engine.apply(template, ctx);
+            final boolean audience = tags.hasAudienceTags() && usesTag(applied, tags.audience());
+            final boolean live = audience || tags.hasGlobalTags() && usesTag(applied, tags.global());
+            entry = new RenderCache.Entry(
+                    applied,
+                    live ? null : engine.deserialize(applied, null, tags.global()),
+                    audience
+            );
+            renderCache.put(key, entry);
+        }
+
+        if (entry.shared() != null) return RenderedText.shared(entry.shared());
+
+        final String applied = entry.applied();
+        if (!entry.audience()) return RenderedText.shared(engine.deserialize(applied, null, tags.global()));
+        return RenderedText.perPlayer(p -> engine.deserialize(applied, p, tags.player()));
+    }
+
+    /**
+     * @return the next instant at which {@link #prepare(String)} of {@code text} can give a different result, see
+     * {@link PlaceholderEngine#nextChangeMs}
+     */
+    public long nextChangeMs(String text) {
+        return engine.nextChangeMs(engine.compile(text), ctxSupplier.get());
+    }
+
+    /**
+     * Whether {@code s} contains a tag that {@code resolver} resolves. Only tag names are checked, so a tag that
+     * MiniMessage would not parse may still count, which only costs a render that could have been cached.
+     */
+    private static boolean usesTag(final String s, final TagResolver resolver) {
+        int i = s.indexOf('<');
+        while (i >= 0) {
+            if (i == 0 || s.charAt(i - 1) != '\\') {
+                int start = i + 1;
+                if (start < s.length() && s.charAt(start) == '/') start++;
+
+                int end = start;
+                while (end < s.length() && isTagNameChar(s.charAt(end))) end++;
+
+                if (end > start && resolver.has(s.substring(start, end).toLowerCase(Locale.ROOT))) return true;
+            }
+            i = s.indexOf('<', i + 1);
+        }
+        return false;
+    }
+
+    private static boolean isTagNameChar(final char c) {
+        return c == '_' || c == '-' || c == '!' || c == '?' || c == '#'
+                || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
     public String renderString(String text) {
         return renderString(null, text);
     }
@@ -103,7 +169,10 @@ public final class RuntimeContext {
      * Intended for command strings and other non-player-facing texts.
      */
     public String renderString(Player player, String text) {
-        final PlaceholderEngine.Context ctx = ctxSupplier.get();
+        return renderString(player, text, ctxSupplier.get());
+    }
+
+    public String renderString(Player player, String text, PlaceholderEngine.Context ctx) {
         return engine.apply(text, ctx);
     }
 }
@@ -0,0 +1,158 @@
+package top.ourisland.invertotimer.runtime.action;
+
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesced dispatcher for timer actions.
+ * <p>
+ * Instead of one scheduler task per action and cycle, every action due at the same millisecond (across all timers) is
+ * put into one batch, and only the earliest batch holds a scheduler task. A batch runs its actions in submission
+ * order, which keeps the config order of each timer.
+ */
+public final class ActionDispatcher {
+    private final Object plugin;
+    private final ProxyServer proxy;
+    private final Logger logger;
+
+    private final NavigableMap<Long, List<Entry>> batches = new TreeMap<>();
+    private final Map<Object, Set<Long>> instantsByOwner = new HashMap<>();
+
+    private ScheduledTask wakeTask;
+    private long wakeAtMs = Long.MAX_VALUE;
+
+    private long batchCount;
+    private long actionCount;
+    private int lastBatchSize;
+    private int maxBatchSize;
+    private long totalLagMs;
+    private long maxLagMs;
+
+    public ActionDispatcher(final Object plugin, final ProxyServer proxy, final Logger logger) {
+        this.plugin = plugin;
+        this.proxy = proxy;
+        this.logger = logger;
+    }
+
+    /**
+     * Queue {@code job} to run at {@code atMs}.
+     *
+     * @param owner the submitter, used by {@link #cancel(Object)}
+     * @param atMs  epoch milliseconds; past instants run in the next batch
+     * @param name  name used in error logs
+     * @param job   the work to run
+     */
+    public synchronized void submit(final Object owner, final long atMs, final String name, final Runnable job) {
+        batches.computeIfAbsent(atMs, k -> new ArrayList<>()).add(new Entry(owner, name, job));
+        instantsByOwner.computeIfAbsent(owner, k -> new HashSet<>()).add(atMs);
+        scheduleWake();
+    }
+
+    /**
+     * Drop every pending job of {@code owner}.
+     */
+    public synchronized void cancel(final Object owner) {
+        final Set<Long> instants = instantsByOwner.remove(owner);
+        if (instants == null) return;
+
+        for (Long at : instants) {
+            final List<Entry> batch = batches.get(at);
+            if (batch == null) continue;
+            batch.removeIf(e -> e.owner() == owner);
+            if (batch.isEmpty()) batches.remove(at);
+        }
+        scheduleWake();
+    }
+
+    public synchronized void shutdown() {
+        batches.clear();
+        instantsByOwner.clear();
+        cancelWake();
+    }
+
+    public synchronized DispatchStats stats() {
+        return new DispatchStats(batchCount, actionCount, lastBatchSize, maxBatchSize, totalLagMs, maxLagMs);
+    }
+
+    public synchronized void resetStats() {
+        batchCount = 0;
+        actionCount = 0;
+        lastBatchSize = 0;
+        maxBatchSize = 0;
+        totalLagMs = 0;
+        maxLagMs = 0;
+    }
+
+    private void dispatch() {
+        final List<Entry> due = new ArrayList<>();
+        synchronized (this) {
+            wakeTask = null;
+            wakeAtMs = Long.MAX_VALUE;
+
+            final long nowMs = System.currentTimeMillis();
+            final NavigableMap<Long, List<Entry>> head = batches.headMap(nowMs, true);
+            for (Map.Entry<Long, List<Entry>> b : head.entrySet()) {
+                final List<Entry> batch = b.getValue();
+                for (Entry e : batch) {
+                    final Set<Long> instants = instantsByOwner.get(e.owner());
+                    if (instants != null && instants.remove(b.getKey()) && instants.isEmpty()) {
+                        instantsByOwner.remove(e.owner());
+                    }
+                }
+                recordBatch(batch.size(), nowMs - b.getKey());
+                due.addAll(batch);
+            }
+            head.clear();
+
+            scheduleWake();
+        }
+
+        for (Entry e : due) {
+            try {
+                e.job().run();
+            } catch (Exception ex) {
+                logger.error("Failed executing action {}", e.name(), ex);
+            }
+        }
+    }
+
+    private void recordBatch(final int size, final long lagMs) {
+        batchCount++;
+        actionCount += size;
+        lastBatchSize = size;
+        if (size > maxBatchSize) maxBatchSize = size;
+        final long lag = Math.max(0, lagMs);
+        totalLagMs += lag;
+        if (lag > maxLagMs) maxLagMs = lag;
+    }
+
+    private void scheduleWake() {
+        if (batches.isEmpty()) {
+            cancelWake();
+            return;
+        }
+
+        final long at = batches.firstKey();
+        if (wakeTask != null && wakeAtMs <= at) return;
+
+        cancelWake();
+        wakeAtMs = at;
+        wakeTask = proxy.getScheduler()
+                .buildTask(plugin, this::dispatch)
+                .delay(Math.max(0, at - System.currentTimeMillis()), TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    private void cancelWake() {
+        if (wakeTask != null) wakeTask.cancel();
+        wakeTask = null;
+        wakeAtMs = Long.MAX_VALUE;
+    }
+
+    private record Entry(Object owner, String name, Runnable job) {
+    }
+}
@@ -4,38 +4,21 @@ import top.ourisland.invertotimer.action.Action;
 import top.ourisland.invertotimer.action.CommandAction;
 import top.ourisland.invertotimer.action.TextAction;
 import top.ourisland.invertotimer.action.TransferAction;
-import top.ourisland.invertotimer.config.model.ActionConfig;
+import top.ourisland.invertotimer.config.plan.ActionPlan;
+import top.ourisland.invertotimer.config.plan.CommandActionPlan;
+import top.ourisland.invertotimer.config.plan.TextActionPlan;
+import top.ourisland.invertotimer.config.plan.TransferActionPlan;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 
-import java.util.Locale;
-import java.util.Map;
-
 public final class ActionFactory {
     private ActionFactory() {
     }
 
-    public static Action create(ActionConfig ac, RuntimeContext ctx) {
-        final String type = ac.type() == null ? "" : ac.type().toLowerCase(Locale.ROOT);
-        final Map<String, Object> opt = ac.options();
-
-        return switch (type) {
-            case "text" -> {
-                final Object infoRaw = opt.get("info");
-                final String textType = String.valueOf(opt.getOrDefault("text-type", "message"));
-                yield new TextAction(ctx, TextAction.parse(textType), infoRaw);
-            }
-            case "transfer" -> new TransferAction(
-                    ctx,
-                    String.valueOf(opt.getOrDefault("target", "")),
-                    String.valueOf(opt.getOrDefault("transferee", ".*"))
-            );
-            case "command" -> new CommandAction(
-                    ctx,
-                    CommandAction.parse(String.valueOf(opt.getOrDefault("executor", "player"))),
-                    String.valueOf(opt.getOrDefault("command", "")),
-                    String.valueOf(opt.getOrDefault("match", ".*"))
-            );
-            default -> null;
+    public static Action create(ActionPlan plan, RuntimeContext ctx) {
+        return switch (plan) {
+            case TextActionPlan p -> new TextAction(ctx, p);
+            case TransferActionPlan p -> new TransferAction(ctx, p);
+            case CommandActionPlan p -> new CommandAction(ctx, p);
         };
     }
 }
@@ -0,0 +1,28 @@
+package top.ourisland.invertotimer.runtime.action;
+
+/**
+ * Statistics of {@link ActionDispatcher} batches.
+ *
+ * @param batches       number of dispatched batches
+ * @param actions       number of dispatched actions
+ * @param lastBatchSize size of the last batch
+ * @param maxBatchSize  largest batch
+ * @param totalLagMs    summed dispatch lag (actual run time minus due time)
+ * @param maxLagMs      largest dispatch lag
+ */
+public record DispatchStats(
+        long batches,
+        long actions,
+        int lastBatchSize,
+        int maxBatchSize,
+        long totalLagMs,
+        long maxLagMs
+) {
+    public double averageBatchSize() {
+        return batches == 0 ? 0.0 : actions / (double) batches;
+    }
+
+    public double averageLagMs() {
+        return batches == 0 ? 0.0 : totalLagMs / (double) batches;
+    }
+}
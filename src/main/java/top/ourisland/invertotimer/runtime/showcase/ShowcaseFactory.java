@@ -1,10 +1,10 @@
 package top.ourisland.invertotimer.runtime.showcase;
 
-import top.ourisland.invertotimer.config.model.ShowcaseConfig;
+import top.ourisland.invertotimer.config.plan.ShowcasePlan;
+import top.ourisland.invertotimer.config.plan.TextSpec;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 import top.ourisland.invertotimer.showcase.*;
 
-import java.util.Locale;
 import java.util.function.Supplier;
 
 public final class ShowcaseFactory {
@@ -12,18 +12,16 @@ public final class ShowcaseFactory {
     }
 
     public static Showcase create(
-            String key,
-            ShowcaseConfig sc,
+            ShowcasePlan plan,
             RuntimeContext ctx,
-            Supplier<Object> textSupplier,
+            Supplier<TextSpec> textSupplier,
             Supplier<Float> progressSupplier
     ) {
-        return switch (key.toLowerCase(Locale.ROOT)) {
-            case "bossbar" -> new BossbarShowcase(ctx, textSupplier, progressSupplier, sc.color());
-            case "title" -> new TitleShowcase(ctx, textSupplier);
-            case "actionbar" -> new ActionbarShowcase(ctx, textSupplier);
-            case "text" -> new TextShowcase(ctx, textSupplier);
-            default -> null;
+        return switch (plan.kind()) {
+            case BOSSBAR -> new BossbarShowcase(ctx, textSupplier, progressSupplier, plan.color());
+            case TITLE -> new TitleShowcase(ctx, textSupplier);
+            case ACTIONBAR -> new ActionbarShowcase(ctx, textSupplier);
+            case TEXT -> new TextShowcase(ctx, textSupplier);
         };
     }
 }
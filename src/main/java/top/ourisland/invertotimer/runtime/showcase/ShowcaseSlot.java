@@ -1,27 +1,47 @@
 package top.ourisland.invertotimer.runtime.showcase;
 
 import lombok.Getter;
-import top.ourisland.invertotimer.config.model.ShowcaseConfig;
+import top.ourisland.invertotimer.config.plan.ShowcasePlan;
 import top.ourisland.invertotimer.showcase.Showcase;
 
+/**
+ * A showcase of a timer together with its send schedule.
+ * <p>
+ * A slot is due once its interval has passed since the last send, or earlier once the output is known to change (see
+ * {@link #changesAt(long)}).
+ */
 @Getter
 public final class ShowcaseSlot {
-    private final ShowcaseType kind;
-    private final ShowcaseConfig config;
+    private final ShowcasePlan plan;
     private final Showcase showcase;
 
     private long lastSentMs = 0;
+    private long changeAtMs = Long.MAX_VALUE;
 
-    public ShowcaseSlot(ShowcaseType kind, ShowcaseConfig config, Showcase showcase) {
-        this.kind = kind;
-        this.config = config;
+    public ShowcaseSlot(ShowcasePlan plan, Showcase showcase) {
+        this.plan = plan;
         this.showcase = showcase;
     }
 
+    public ShowcaseType kind() {
+        return plan.kind();
+    }
+
     public boolean tryAcquire(long nowMs, long intervalMs) {
-        if (intervalMs <= 0) return true;
-        if (nowMs - lastSentMs < intervalMs) return false;
+        if (intervalMs > 0 && nowMs - lastSentMs < intervalMs && nowMs < changeAtMs) return false;
         lastSentMs = nowMs;
+        changeAtMs = Long.MAX_VALUE;
         return true;
     }
+
+    /**
+     * Make the slot due at {@code atMs} even if its interval has not passed by then. Reset by the next send.
+     */
+    public void changesAt(long atMs) {
+        changeAtMs = atMs;
+    }
+
+    public long nextDueMs(long intervalMs) {
+        return Math.min(lastSentMs + Math.max(0, intervalMs), changeAtMs);
+    }
 }
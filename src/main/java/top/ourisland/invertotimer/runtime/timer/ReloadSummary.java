@@ -0,0 +1,17 @@
+package top.ourisland.invertotimer.runtime.timer;
+
+/**
+ * Outcome of {@link TimerRunner#reloadFromConfig()}.
+ *
+ * @param kept    timers whose config did not change and kept running untouched
+ * @param rebuilt timers whose config changed and were rebuilt in place
+ * @param added   timers that are new in the config
+ * @param removed timers that are gone from the config and were disposed
+ */
+public record ReloadSummary(
+        int kept,
+        int rebuilt,
+        int added,
+        int removed
+) {
+}
@@ -0,0 +1,34 @@
+package top.ourisland.invertotimer.runtime.timer;
+
+/**
+ * Wall-time statistics of {@link TimerRunner} ticks.
+ *
+ * @param ticks        number of ticks since the last reload
+ * @param lastTimers   number of timers ticked by the last tick
+ * @param lastNanos    wall time of the last tick
+ * @param maxNanos     longest tick since the last reload
+ * @param totalNanos   summed wall time of all ticks since the last reload
+ * @param parallel     whether the parallel tick is active
+ * @param threads      worker count of the parallel tick (1 when sequential)
+ */
+public record TickStats(
+        long ticks,
+        int lastTimers,
+        long lastNanos,
+        long maxNanos,
+        long totalNanos,
+        boolean parallel,
+        int threads
+) {
+    public double lastMillis() {
+        return lastNanos / 1_000_000.0;
+    }
+
+    public double maxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    public double averageMillis() {
+        return ticks == 0 ? 0.0 : totalNanos / (double) ticks / 1_000_000.0;
+    }
+}
@@ -2,273 +2,320 @@ package top.ourisland.invertotimer.runtime.timer;
 
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
-import com.velocitypowered.api.scheduler.ScheduledTask;
 import lombok.NonNull;
 import org.slf4j.Logger;
-import top.ourisland.invertotimer.InvertoTimer;
 import top.ourisland.invertotimer.action.Action;
-import top.ourisland.invertotimer.config.ConfigManager;
-import top.ourisland.invertotimer.config.model.*;
+import top.ourisland.invertotimer.config.model.GlobalConfig;
+import top.ourisland.invertotimer.config.model.TimerConfig;
+import top.ourisland.invertotimer.config.plan.*;
 import top.ourisland.invertotimer.runtime.PlaceholderEngine;
+import top.ourisland.invertotimer.runtime.PlaceholderTags;
+import top.ourisland.invertotimer.runtime.PlayerIndex;
+import top.ourisland.invertotimer.runtime.RenderCache;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
+import top.ourisland.invertotimer.runtime.action.ActionDispatcher;
 import top.ourisland.invertotimer.runtime.action.ActionFactory;
 import top.ourisland.invertotimer.runtime.showcase.ShowcaseFactory;
 import top.ourisland.invertotimer.runtime.showcase.ShowcaseSlot;
 import top.ourisland.invertotimer.runtime.showcase.ShowcaseType;
 import top.ourisland.invertotimer.showcase.BossbarShowcase;
 import top.ourisland.invertotimer.showcase.Showcase;
-import top.ourisland.invertotimer.util.Cron5;
+import top.ourisland.invertotimer.util.TimeUtil;
 
 import java.time.*;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 final class TimerInstance {
-    private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-    private final InvertoTimer plugin;
+    private static final long MIN_REFRESH_MS = 250;
 
     private final ProxyServer proxy;
     private final Logger logger;
 
-    private final ConfigManager configManager;
-    private final TimerConfig cfg;
-    private final ZoneId zoneId;
-
-    private final List<ScheduledTask> actionTasks = new ArrayList<>();
-    private final Map<String, ShowcaseSlot> showcaseSlots = new HashMap<>();
+    private volatile TimerConfig cfg;
+    private volatile TimerPlan plan;
+    private ZoneId zoneId;
+
+    private final ActionDispatcher dispatcher;
+    private final List<CompiledAction> compiledActions = new ArrayList<>();
+    private long pendingTargetMs;
+    private int pendingAction;
+    /**
+     * Replaced as a whole on rebuild, so {@link #hideFor(Player)} can iterate it from the event thread.
+     */
+    private volatile List<ShowcaseSlot> showcaseSlots = List.of();
     private final PlaceholderEngine placeholders;
+    private final RenderCache renderCache;
+    private final PlaceholderTags tags;
+    private final PlayerIndex.Selection audience;
     private Instant expireAt = Instant.EPOCH;
-    private Cron5 cron;
-    private LocalDateTime oneTime;
-    private ZonedDateTime nextTarget;
+    private volatile ZonedDateTime nextTarget;
     private volatile GlobalConfig lastGlobal;
     private volatile Instant lastNow;
+    /**
+     * Placeholder values of the current tick, shared by every showcase and action rendered in it.
+     */
+    private volatile PlaceholderEngine.Context tickContext;
+    private volatile TargetText targetText = TargetText.NONE;
     private BossbarShowcase bossbarShowcase;
     private ShowcaseSlot bossbarSlot;
-    private ShowcaseConfig bossBarConfig;
     private RuntimeContext ctx;
 
     TimerInstance(
-            @NonNull final InvertoTimer plugin,
+            @NonNull final ActionDispatcher dispatcher,
+            @NonNull final PlaceholderEngine placeholders,
+            @NonNull final RenderCache renderCache,
+            @NonNull final PlaceholderTags tags,
+            @NonNull final PlayerIndex playerIndex,
             final ProxyServer proxy,
             final Logger logger,
-            final ConfigManager configManager,
             final TimerConfig cfg,
+            final TimerPlan plan,
             final ZoneId zoneId
     ) {
-        this.plugin = plugin;
+        this.dispatcher = dispatcher;
         this.proxy = proxy;
         this.logger = logger;
-        this.configManager = configManager;
-        this.placeholders = new PlaceholderEngine(configManager);
+        this.placeholders = placeholders;
+        this.renderCache = renderCache;
+        this.tags = tags;
+        this.audience = playerIndex.select(this::isServerAllowed);
         this.cfg = cfg;
+        this.plan = plan;
         this.zoneId = zoneId;
 
-        parseTimeSpec();
         buildRuntimeContext();
+        compileActions();
         rebuildForNewTarget();
     }
 
-    private void parseTimeSpec() {
-        try {
-            if (cfg.cron() != null && !cfg.cron().isBlank()) {
-                this.cron = Cron5.parse(cfg.cron());
-            }
-        } catch (Exception ignored) {
-            this.cron = null;
-        }
-
-        try {
-            if (cfg.time() != null && !cfg.time().isBlank()) {
-                this.oneTime = LocalDateTime.parse(cfg.time(), TIME_FMT);
-            }
-        } catch (Exception ignored) {
-            this.oneTime = null;
-        }
-    }
-
     private void buildRuntimeContext() {
         this.ctx = new RuntimeContext(
                 proxy,
-                this::isPlayerAllowedUsingLastGlobal,
+                audience,
                 placeholders,
-                () -> buildPlaceholderContext(lastNow == null ? Instant.now() : lastNow),
+                renderCache,
+                tags,
+                this::placeholderContext,
                 logger
         );
     }
 
+    /**
+     * Build every configured action once for this config load. A new target only binds the compiled actions to their
+     * due instants, so cycling does not re-parse options or recompile patterns.
+     * <p>
+     * The plan keeps the actions sorted by shift (equal shifts keep config order), so this list doubles as the pending
+     * queue of actions beyond the dispatch horizon, see {@link #releaseActions(long)}.
+     */
+    private void compileActions() {
+        compiledActions.clear();
+        for (ActionPlan ap : plan.actions()) {
+            final Action action = ActionFactory.create(ap, ctx);
+
+            compiledActions.add(new CompiledAction(
+                    ap.shiftMs(),
+                    action.name() + " (" + plan.id() + ")",
+                    () -> runAction(action)
+            ));
+        }
+    }
+
     private void rebuildForNewTarget() {
         cancelActionTasks();
 
-        showcaseSlots.clear();
+        tickContext = null;
+        hideBossbar();
+        showcaseSlots = List.of();
         bossbarShowcase = null;
         bossbarSlot = null;
-        bossBarConfig = null;
 
         expireAt = Instant.EPOCH;
 
         if (nextTarget == null) return;
 
-        final Instant targetInstant = nextTarget.toInstant();
-        expireAt = targetInstant;
-
-        for (ActionConfig ac : cfg.actions()) {
-            final Instant at = targetInstant.plus(ac.shift());
-            final Action action = ActionFactory.create(ac, ctx);
-            if (action == null) continue;
+        final long targetMs = nextTarget.toInstant().toEpochMilli();
+        pendingTargetMs = targetMs;
+        pendingAction = 0;
 
-            scheduleAction(at, action);
-            if (at.isAfter(expireAt)) expireAt = at;
-        }
-
-        for (Map.Entry<String, ShowcaseConfig> e : cfg.showcases().entrySet()) {
-            final String key = e.getKey();
-            final ShowcaseConfig sc = e.getValue();
-            if (sc == null || !sc.enabled()) continue;
+        expireAt = Instant.ofEpochMilli(targetMs + plan.expireOffsetMs());
 
-            ShowcaseType kind = ShowcaseType.fromKey(key);
-            if (kind == null) continue;
+        releaseActions(System.currentTimeMillis());
 
+        final List<ShowcaseSlot> slots = new ArrayList<>(plan.showcases().size());
+        for (ShowcasePlan sp : plan.showcases()) {
             Showcase showcase = ShowcaseFactory.create(
-                    key,
-                    sc,
+                    sp,
                     ctx,
-                    () -> textFor(sc, lastNow == null ? Instant.now() : lastNow),
-                    () -> progressFor(sc, lastNow == null ? Instant.now() : lastNow)
+                    () -> textFor(sp, lastNow == null ? Instant.now() : lastNow),
+                    () -> progressFor(sp, lastNow == null ? Instant.now() : lastNow)
             );
-            if (showcase == null) continue;
 
-            ShowcaseSlot slot = new ShowcaseSlot(kind, sc, showcase);
-            showcaseSlots.put(key.toLowerCase(Locale.ROOT), slot);
+            ShowcaseSlot slot = new ShowcaseSlot(sp, showcase);
+            slots.add(slot);
 
             if (showcase instanceof BossbarShowcase bbs) {
                 bossbarShowcase = bbs;
                 bossbarSlot = slot;
-                bossBarConfig = sc;
             }
         }
+        showcaseSlots = List.copyOf(slots);
     }
 
-    private boolean isPlayerAllowedUsingLastGlobal(final Player p) {
+    /**
+     * @param server a lower-cased server name
+     */
+    private boolean isServerAllowed(final String server) {
         final GlobalConfig g = lastGlobal;
-        if (g == null) return true;
-        return isPlayerAllowed(p, g);
+        if (g != null && !g.limitation().isAllowed(server)) return false;
+        return plan.limitation().isAllowed(server);
+    }
+
+    private PlaceholderEngine.Context placeholderContext() {
+        final PlaceholderEngine.Context c = tickContext;
+        return c != null ? c : beginTick(lastNow == null ? Instant.now() : lastNow);
+    }
+
+    /**
+     * Build the placeholder values for {@code now} once; renders until the next tick reuse them.
+     */
+    private PlaceholderEngine.Context beginTick(final Instant now) {
+        lastNow = now;
+        final PlaceholderEngine.Context c = buildPlaceholderContext(now);
+        tickContext = c;
+        return c;
     }
 
     private PlaceholderEngine.Context buildPlaceholderContext(final Instant now) {
-        final long remainingSec = nextTarget == null ? 0 :
-                Math.max(0, java.time.Duration.between(now, nextTarget.toInstant()).getSeconds());
+        final ZonedDateTime target = nextTarget;
+        final long remainingSec = target == null ? 0 :
+                Math.max(0, Duration.between(now, target.toInstant()).getSeconds());
 
-        final String targetText = nextTarget == null ? "" : TIME_FMT.format(nextTarget);
         return new PlaceholderEngine.Context(
-                cfg.id(),
-                cfg.description(),
+                plan.id(),
+                plan.description(),
                 now,
-                nextTarget,
-                targetText,
+                target,
+                targetText(target),
                 remainingSec
         );
     }
 
-    private void cancelActionTasks() {
-        for (ScheduledTask t : actionTasks) {
-            try {
-                t.cancel();
-            } catch (Exception ignored) {
-            }
+    /**
+     * @return {@code target} formatted with {@link PlanCompiler#TIME_FMT}, formatted again only when the target changes
+     */
+    private String targetText(final ZonedDateTime target) {
+        TargetText tt = targetText;
+        if (tt.target() != target) {
+            tt = new TargetText(target, target == null ? "" : PlanCompiler.TIME_FMT.format(target));
+            targetText = tt;
         }
-        actionTasks.clear();
+        return tt.text();
     }
 
-    private void scheduleAction(final Instant at, final Action action) {
-        long delayMs = at.toEpochMilli() - System.currentTimeMillis();
-        if (delayMs < 0) delayMs = 0;
-
-        ScheduledTask task = proxy.getScheduler()
-                .buildTask(plugin, () -> {
-                    lastNow = Instant.now();
-                    try {
-                        action.execute();
-                    } catch (Exception e) {
-                        logger.error("Failed executing action {} for timer {}", action.name(), cfg.id(), e);
-                    }
-                })
-                .delay(delayMs, TimeUnit.MILLISECONDS)
-                .schedule();
+    private void cancelActionTasks() {
+        dispatcher.cancel(this);
+        pendingAction = compiledActions.size();
+    }
 
-        actionTasks.add(task);
+    /**
+     * Hand every pending action that is due within the action horizon over to the dispatcher. Actions further ahead
+     * stay in {@link #compiledActions}, so the dispatcher only ever holds near-term work.
+     */
+    private void releaseActions(final long nowMs) {
+        final long limit = nowMs + actionHorizonMs();
+        while (pendingAction < compiledActions.size()) {
+            final CompiledAction ca = compiledActions.get(pendingAction);
+            final long at = pendingTargetMs + ca.shiftMs();
+            if (at > limit) break;
+
+            dispatcher.submit(this, at, ca.label(), ca.job());
+            pendingAction++;
+        }
     }
 
-    private Object textFor(final ShowcaseConfig sc, final Instant now) {
-        if (nextTarget == null) return sc.text();
+    private long nextActionReleaseMs() {
+        if (pendingAction >= compiledActions.size()) return Long.MAX_VALUE;
+        return pendingTargetMs + compiledActions.get(pendingAction).shiftMs() - actionHorizonMs();
+    }
 
-        ShowcaseConfig.After af = sc.after();
-        if (af == null || af.duration() == null || af.duration().isZero() || af.text() == null) return sc.text();
+    private long actionHorizonMs() {
+        final GlobalConfig g = lastGlobal;
+        return g == null ? 0 : g.performance().actionHorizon().toMillis();
+    }
 
-        Instant target = nextTarget.toInstant();
-        Instant end = target.plus(af.duration());
+    /**
+     * Runs on the dispatcher thread, so the action gets its own placeholder values instead of replacing the tick's.
+     */
+    private void runAction(final Action action) {
+        try {
+            action.execute(buildPlaceholderContext(Instant.now()));
+        } catch (Exception e) {
+            logger.error("Failed executing action {} for timer {}", action.name(), plan.id(), e);
+        }
+    }
 
-        if (!now.isBefore(target) && !now.isAfter(end)) return af.text();
-        return sc.text();
+    private TextSpec textFor(final ShowcasePlan sp, final Instant now) {
+        if (nextTarget == null) return sp.text();
+        return sp.textAt(nextTarget.toInstant().toEpochMilli(), now.toEpochMilli());
     }
 
-    private float progressFor(final ShowcaseConfig sc, final Instant now) {
+    private float progressFor(final ShowcasePlan sp, final Instant now) {
         if (nextTarget == null) return 1.0f;
-        final Instant target = nextTarget.toInstant();
-        final Duration startAt = sc.startAt();
+        final long rem = Math.max(0, Duration.between(now, nextTarget.toInstant()).getSeconds());
+
+        final long total = sp.startAtMs() / 1000;
+        if (total > 0) {
+            final int steps = bossbarSteps();
+            if (steps > 0) return progressStep(Math.min(rem, total), total, steps) / (float) steps;
 
-        if (startAt != null && !startAt.isZero()) {
-            long total = startAt.abs().getSeconds();
-            long rem = Math.max(0, Duration.between(now, target).getSeconds());
-            float p = total == 0 ? 0f : (rem / (float) total);
+            float p = rem / (float) total;
             if (p < 0f) p = 0f;
             if (p > 1f) p = 1f;
             return p;
         }
 
-        long rem = Math.max(0, Duration.between(now, target).getSeconds());
         return rem > 0 ? 1.0f : 0.0f;
     }
 
-    private boolean isPlayerAllowed(final Player p, final GlobalConfig global) {
-        final String serverName = p.getCurrentServer()
-                .map(c -> c.getServerInfo().getName())
-                .orElse(null);
-
-        if (!global.limitation().isAllowed(serverName)) return false;
-        return cfg.limitation().isAllowed(serverName);
+    /**
+     * The next instant at which {@link #progressFor} gives another value. With quantized progress that is when the
+     * remaining seconds cross into the next step, which on a long window is far less often than every second.
+     */
+    private long progressChangeMs(final ShowcasePlan sp, final long nowMs, final long targetMs) {
+        final long total = sp.startAtMs() / 1000;
+        if (total <= 0) return nowMs < targetMs ? targetMs : Long.MAX_VALUE;
+
+        final long nextSecond = TimeUtil.nextSecondBoundaryMs(nowMs, targetMs);
+        final int steps = bossbarSteps();
+        if (steps <= 0 || nextSecond == Long.MAX_VALUE) return nextSecond;
+
+        final long rem = Math.min((targetMs - nowMs) / 1000, total);
+        final long step = progressStep(rem, total, steps);
+        if (step == 0) return Long.MAX_VALUE;
+
+        // the largest remaining second that rounds to a lower step, and the instant the countdown reaches it
+        final long lower = (long) Math.ceil((step - 0.5) * total / steps) - 1;
+        return Math.max(targetMs - (lower + 1) * 1000 + 1, nextSecond);
     }
 
-    private String animationFrameText(final String id, final Instant now) {
-        if (id == null || id.isBlank()) return "";
-        final AnimationConfig anim = configManager.animations().get(id);
-        if (anim == null) return "";
-
-        final List<AnimationConfig.Frame> frames = anim.frames();
-        if (frames == null || frames.isEmpty()) return "";
-
-        final long total = Math.max(1, anim.totalDurationMs());
-        final long pos = Math.floorMod(now.toEpochMilli(), total);
-
-        long acc = 0;
-        for (AnimationConfig.Frame f : frames) {
-            acc += Math.max(1, f.durationMs());
-            if (pos < acc) {
-                return f.text() == null ? "" : f.text();
-            }
-        }
+    private static long progressStep(final long rem, final long total, final int steps) {
+        return Math.round(rem * (double) steps / total);
+    }
 
-        AnimationConfig.Frame last = frames.getLast();
-        return last.text() == null ? "" : last.text();
+    private int bossbarSteps() {
+        final GlobalConfig g = lastGlobal;
+        return g == null ? 0 : g.performance().bossbarSteps();
     }
 
     void tick(final Instant now, final GlobalConfig global) {
-        this.lastNow = now;
-        this.lastGlobal = global;
+        if (global != lastGlobal) {
+            this.lastGlobal = global;
+            audience.invalidate();
+        }
 
         ensureNextTarget(now);
+        beginTick(now);
+        releaseActions(now.toEpochMilli());
         updateShowcases(now);
     }
 
@@ -290,80 +337,101 @@ final class TimerInstance {
 
         final long nowMs = now.toEpochMilli();
 
-        for (ShowcaseSlot slot : showcaseSlots.values()) {
+        for (ShowcaseSlot slot : showcaseSlots) {
             if (!shouldShow(slot, now)) continue;
 
-            Duration interval = slot.config().interval();
-            if (interval == null) interval = slot.kind().defaultInterval();
-
-            if (!slot.tryAcquire(nowMs, interval.toMillis())) continue;
+            if (!slot.tryAcquire(nowMs, slot.plan().intervalMs())) continue;
 
             try {
                 slot.showcase().show();
+                if (slot.kind() != ShowcaseType.TEXT) {
+                    slot.changesAt(Math.max(nextChangeMs(slot, nowMs), nowMs + MIN_REFRESH_MS));
+                }
             } catch (Exception e) {
-                logger.error("Failed showing {} for timer {}", slot.showcase().name(), cfg.id(), e);
+                logger.error("Failed showing {} for timer {}", slot.showcase().name(), plan.id(), e);
             }
         }
     }
 
-    private ZonedDateTime computeNextTarget(final Instant now) {
-        final ZonedDateTime zNow = ZonedDateTime.ofInstant(now, zoneId).withSecond(0).withNano(0);
-        if (oneTime != null) {
-            final ZonedDateTime target = oneTime.atZone(zoneId);
-            return target.isAfter(zNow) ? target : null;
-        }
-        if (cron != null) {
-            return cron.nextAfter(zNow);
+    /**
+     * The next instant at which the output of {@code slot} changes: its text (remaining seconds, animation frames),
+     * the switch to the after text at the target, or for the bossbar its progress. Chat text is not refreshed on
+     * change, since every send is a new chat line.
+     */
+    private long nextChangeMs(final ShowcaseSlot slot, final long nowMs) {
+        final ShowcasePlan sp = slot.plan();
+        final long targetMs = nextTarget.toInstant().toEpochMilli();
+
+        long next = slot.showcase().nextChangeMs();
+        if (sp.afterText() != null && nowMs < targetMs) next = Math.min(next, targetMs);
+
+        if (slot.kind() == ShowcaseType.BOSSBAR) {
+            next = Math.min(next, progressChangeMs(sp, nowMs, targetMs));
         }
-        return null;
+        return next;
     }
 
-    private Instant getExpireTime() {
-        Instant last = expireAt;
+    /**
+     * Compute the next instant at which this timer has something to do: a showcase coming due, a start-at window
+     * opening, a pending action entering the action horizon, or the current target expiring.
+     * <p>
+     * While no window is open this is the earliest activation time of the timer, i.e. the minimum over all showcases of
+     * {@code target - startAt}.
+     *
+     * @return epoch milliseconds of the next wakeup, or {@link Long#MAX_VALUE} if the timer has nothing left to do
+     */
+    long nextWakeupMs(final Instant now) {
+        if (nextTarget == null) return Long.MAX_VALUE;
 
-        if (nextTarget != null) {
-            final Instant target = nextTarget.toInstant();
+        final long nowMs = now.toEpochMilli();
+        long next = Math.min(getExpireTime().toEpochMilli() + 1, nextActionReleaseMs());
 
-            for (ShowcaseSlot slot : showcaseSlots.values()) {
-                boolean allowAfter = switch (slot.kind()) {
-                    case ACTIONBAR, BOSSBAR, TITLE -> true;
-                    default -> false;
-                };
-                if (!allowAfter) continue;
+        for (ShowcaseSlot slot : showcaseSlots) {
+            final Instant begin = windowBegin(slot);
+            if (now.isAfter(windowEnd(slot))) continue;
 
-                ShowcaseConfig.After af = slot.config().after();
-                if (af == null || af.duration() == null || af.duration().isZero()) continue;
+            final long due = now.isBefore(begin)
+                    ? begin.toEpochMilli()
+                    : slot.nextDueMs(Math.max(MIN_REFRESH_MS, slot.plan().intervalMs()));
+            if (due < next) next = due;
+        }
 
-                Instant end = target.plus(af.duration());
-                if (end.isAfter(last)) last = end;
-            }
+        return Math.max(next, nowMs + 1);
+    }
+
+    private ZonedDateTime computeNextTarget(final Instant now) {
+        final ZonedDateTime zNow = ZonedDateTime.ofInstant(now, zoneId).withSecond(0).withNano(0);
+        if (plan.time() != null) {
+            final ZonedDateTime target = plan.time().atZone(zoneId);
+            return target.isAfter(zNow) ? target : null;
+        }
+        if (plan.cron() != null) {
+            return plan.cron().nextAfter(zNow);
         }
+        return null;
+    }
 
-        return last.plusSeconds(2);
+    private Instant getExpireTime() {
+        return expireAt.plusSeconds(2);
     }
 
     private boolean shouldShow(final ShowcaseSlot slot, final Instant now) {
         if (nextTarget == null) return false;
+        if (now.isBefore(windowBegin(slot))) return false;
+        return !now.isAfter(windowEnd(slot));
+    }
 
-        final ShowcaseConfig sc = slot.config();
-        final Instant target = nextTarget.toInstant();
-
-        final Instant begin = (sc.startAt() == null) ? Instant.EPOCH : target.minus(sc.startAt().abs());
-
-        Instant end = target;
-
-        boolean allowAfter = switch (slot.kind()) {
-            case ACTIONBAR, BOSSBAR, TITLE -> true;
-            default -> false;
-        };
+    private Instant windowBegin(final ShowcaseSlot slot) {
+        final ShowcasePlan sp = slot.plan();
+        return sp.hasStartAt() ? nextTarget.toInstant().minusMillis(sp.startAtMs()) : Instant.EPOCH;
+    }
 
-        final ShowcaseConfig.After af = sc.after();
-        if (allowAfter && af != null && af.duration() != null && !af.duration().isZero()) {
-            end = target.plus(af.duration());
-        }
+    private Instant windowEnd(final ShowcaseSlot slot) {
+        return nextTarget.toInstant().plusMillis(slot.plan().afterMs());
+    }
 
-        if (now.isBefore(begin)) return false;
-        return !now.isAfter(end);
+    String id() {
+        return plan.id();
     }
 
     String peekNext() {
@@ -382,7 +450,7 @@ final class TimerInstance {
             return;
         }
 
-        if (!isPlayerAllowedUsingLastGlobal(p)) {
+        if (!ctx.allowed(p)) {
             bossbarShowcase.hideFrom(p);
             return;
         }
@@ -391,19 +459,55 @@ final class TimerInstance {
     }
 
     void hideFor(final Player p) {
-        if (bossbarShowcase != null) bossbarShowcase.hideFrom(p);
+        for (ShowcaseSlot slot : showcaseSlots) slot.showcase().forget(p);
+    }
+
+    TimerConfig config() {
+        return cfg;
+    }
+
+    /**
+     * Swap in a changed config without replacing the instance. The old target, showcases and pending actions are
+     * dropped; the next tick picks a new target from the new config.
+     */
+    void reconfigure(final TimerConfig cfg, final TimerPlan plan, final ZoneId zoneId) {
+        dispose();
+
+        this.cfg = cfg;
+        this.plan = plan;
+        this.zoneId = zoneId;
+        this.nextTarget = null;
+        audience.invalidate();
+
+        compileActions();
+        rebuildForNewTarget();
     }
 
     void dispose() {
         cancelActionTasks();
 
-        if (bossbarShowcase != null) {
-            for (Player p : proxy.getAllPlayers()) {
-                try {
-                    bossbarShowcase.hideFrom(p);
-                } catch (Exception ignored) {
-                }
-            }
+        hideBossbar();
+    }
+
+    private void hideBossbar() {
+        if (bossbarShowcase == null) return;
+        try {
+            bossbarShowcase.hideAll();
+        } catch (Exception e) {
+            logger.warn("Failed hiding bossbar of timer {}", plan.id(), e);
         }
     }
+
+    /**
+     * An action built once per config load, bound to a new target by adding {@code shiftMs}.
+     */
+    private record CompiledAction(long shiftMs, String label, Runnable job) {
+    }
+
+    /**
+     * A target together with its formatted text.
+     */
+    private record TargetText(ZonedDateTime target, String text) {
+        static final TargetText NONE = new TargetText(null, "");
+    }
 }
@@ -10,25 +10,89 @@ import com.velocitypowered.api.scheduler.ScheduledTask;
 import org.slf4j.Logger;
 import top.ourisland.invertotimer.InvertoTimer;
 import top.ourisland.invertotimer.config.ConfigManager;
+import top.ourisland.invertotimer.config.ConfigSnapshot;
 import top.ourisland.invertotimer.config.model.GlobalConfig;
+import top.ourisland.invertotimer.config.model.PerformanceConfig;
 import top.ourisland.invertotimer.config.model.TimerConfig;
+import top.ourisland.invertotimer.config.plan.TimerPlan;
+import top.ourisland.invertotimer.runtime.PlaceholderEngine;
+import top.ourisland.invertotimer.runtime.PlaceholderTags;
+import top.ourisland.invertotimer.runtime.PlayerIndex;
+import top.ourisland.invertotimer.runtime.RenderCache;
+import top.ourisland.invertotimer.runtime.RenderCacheStats;
+import top.ourisland.invertotimer.runtime.action.ActionDispatcher;
+import top.ourisland.invertotimer.runtime.action.DispatchStats;
 
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Drives all {@link TimerInstance}s.
+ * <p>
+ * Instead of polling every instance at a fixed rate, each instance reports the next instant it has something to do
+ * ({@link TimerInstance#nextWakeupMs(Instant)}). Those deadlines are kept in a {@link TimingWheel} and the runner
+ * schedules a single one-shot wakeup for the earliest one, so idle timers cost nothing between their deadlines.
+ * <p>
+ * Instances whose next activation lies beyond {@link #DORMANT_HORIZON_MS} (a one-shot timer for next year, a monthly
+ * cron, ...) are not put on the wheel at all. They wait in a dormant index ordered by activation time and are promoted
+ * to the wheel once their window is about to open, so they cost a single wakeup instead of one per wheel level.
+ * <p>
+ * With {@code performance.parallel-tick} enabled, the timers due in one tick are spread over a bounded
+ * {@link ForkJoinPool}. Every instance is ticked by exactly one worker and the runner waits for all of them before the
+ * wheel is touched again.
+ * <p>
+ * Reloads are incremental: the new timer configs are diffed against the running instances, so untouched timers keep
+ * running (and keep their bossbars and pending actions), changed timers are rebuilt in place and only removed timers
+ * are disposed.
+ */
 public class TimerRunner {
+    private static final long WHEEL_TICK_MS = 50;
+    private static final int WHEEL_SIZE = 64;
+    private static final long DORMANT_HORIZON_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final int RENDER_CACHE_SIZE = 1024;
+
     private final InvertoTimer plugin;
     private final ProxyServer proxy;
     private final Logger logger;
     private final ConfigManager configs;
 
-    private final Map<String, TimerInstance> instances = new HashMap<>();
+    private final ActionDispatcher dispatcher;
+    private final PlaceholderEngine placeholders;
+    private final RenderCache renderCache = new RenderCache(RENDER_CACHE_SIZE);
+    private final PlaceholderTags tags;
+    private final PlayerIndex playerIndex = new PlayerIndex();
+
+    private final Map<String, TimerInstance> instances = new ConcurrentHashMap<>();
+    private final Map<TimerInstance, TimingWheel.Timeout<TimerInstance>> parked = new IdentityHashMap<>();
+    private final TimingWheel<TimerInstance> wheel = new TimingWheel<>(
+            WHEEL_TICK_MS, WHEEL_SIZE, System.currentTimeMillis()
+    );
+    private final PriorityQueue<Dormant> dormant = new PriorityQueue<>(
+            Comparator.comparingLong(Dormant::activationMs)
+    );
+    /**
+     * The live entry of each dormant instance. Queue entries that are not in here were unparked and are dropped lazily
+     * when they reach the head, so unparking does not scan the queue.
+     */
+    private final Map<TimerInstance, Dormant> dormantOf = new IdentityHashMap<>();
 
     private volatile GlobalConfig global;
     private volatile Map<String, TimerConfig> timerConfigs;
-    private ScheduledTask tickTask;
+    private ScheduledTask wakeTask;
+    private long wakeAtMs = Long.MAX_VALUE;
+    private boolean started;
+    private ForkJoinPool tickPool;
+
+    private long ticks;
+    private int lastTickTimers;
+    private long lastTickNanos;
+    private long maxTickNanos;
+    private long totalTickNanos;
 
     public TimerRunner(
             final InvertoTimer plugin,
@@ -40,45 +104,274 @@ public class TimerRunner {
         this.proxy = proxy;
         this.logger = logger;
         this.configs = configs;
+        this.dispatcher = new ActionDispatcher(plugin, proxy, logger);
+        this.placeholders = new PlaceholderEngine(configs);
+        this.tags = PlaceholderTags.detect(proxy, logger);
+        this.playerIndex.rebuild(proxy.getAllPlayers());
         reloadFromConfig();
     }
 
-    public synchronized void reloadFromConfig() {
-        instances.values().forEach(TimerInstance::dispose);
+    public synchronized ReloadSummary reloadFromConfig() {
+        final GlobalConfig previous = this.global;
+
+        final ConfigSnapshot snapshot = configs.snapshot();
+        this.global = snapshot.global();
+        this.timerConfigs = snapshot.timers();
+        final Map<String, TimerPlan> plans = snapshot.plans();
+
+        configureTickPool(global.performance());
+        resetStats();
+        dispatcher.resetStats();
+        renderCache.clear();
+        renderCache.resetStats();
+
+        final boolean zoneChanged = previous != null && !previous.zoneId().equals(global.zoneId());
+        int kept = 0, rebuilt = 0, added = 0, removed = 0;
+
+        final Iterator<Map.Entry<String, TimerInstance>> it = instances.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<String, TimerInstance> e = it.next();
+            if (timerConfigs.containsKey(e.getKey())) continue;
+
+            unpark(e.getValue());
+            e.getValue().dispose();
+            it.remove();
+            removed++;
+        }
+
+        final long nowMs = System.currentTimeMillis();
+        for (Map.Entry<String, TimerConfig> e : timerConfigs.entrySet()) {
+            TimerInstance inst = instances.get(e.getKey());
+
+            if (inst == null) {
+                inst = new TimerInstance(
+                        dispatcher, placeholders, renderCache, tags, playerIndex, proxy, logger,
+                        e.getValue(), plans.get(e.getKey()), global.zoneId()
+                );
+                instances.put(e.getKey(), inst);
+                added++;
+            } else if (!zoneChanged && inst.config().equals(e.getValue())) {
+                kept++;
+                continue;
+            } else {
+                unpark(inst);
+                inst.reconfigure(e.getValue(), plans.get(e.getKey()), global.zoneId());
+                rebuilt++;
+            }
 
-        this.global = configs.globalConfig();
-        this.timerConfigs = configs.getTimers();
-
-        instances.clear();
-        for (String id : timerConfigs.keySet()) {
-            instances.put(id, new TimerInstance(
-                    plugin,
-                    proxy,
-                    logger,
-                    configs,
-                    timerConfigs.get(id),
-                    global.zoneId())
-            );
+            if (started) park(inst, nowMs, nowMs);
         }
+
+        if (started) scheduleWake();
+        return new ReloadSummary(kept, rebuilt, added, removed);
     }
 
     public synchronized void start() {
-        if (tickTask != null) tickTask.cancel();
-        tickTask = proxy.getScheduler()
-                .buildTask(plugin, this::tick)
-                .repeat(250, TimeUnit.MILLISECONDS)
-                .schedule();
+        started = true;
+        scheduleAllNow();
+    }
+
+    private void scheduleAllNow() {
+        final long nowMs = System.currentTimeMillis();
+        for (TimerInstance inst : instances.values()) {
+            unpark(inst);
+            park(inst, nowMs, nowMs);
+        }
+        scheduleWake();
     }
 
-    private void tick() {
+    public synchronized void shutdown() {
+        started = false;
+        cancelWake();
+        instances.values().forEach(TimerInstance::dispose);
+        wheel.clear();
+        parked.clear();
+        dormant.clear();
+        dormantOf.clear();
+        dispatcher.shutdown();
+        configureTickPool(PerformanceConfig.defaults());
+    }
+
+    private void configureTickPool(final PerformanceConfig perf) {
+        final int threads = perf.parallelTick() ? perf.effectiveThreads() : 0;
+        if (tickPool != null && tickPool.getParallelism() == threads) return;
+
+        if (tickPool != null) {
+            tickPool.shutdown();
+            tickPool = null;
+        }
+        if (threads > 0) tickPool = new ForkJoinPool(threads);
+    }
+
+    private synchronized void tick() {
+        wakeTask = null;
+        wakeAtMs = Long.MAX_VALUE;
+
+        final long startNanos = System.nanoTime();
         final Instant now = Instant.now();
+        final long nowMs = now.toEpochMilli();
         final GlobalConfig g = this.global;
 
-        for (TimerInstance inst : instances.values()) {
+        promoteDormant(nowMs);
+
+        final List<TimerInstance> due = wheel.poll(nowMs);
+        for (TimerInstance inst : due) parked.remove(inst);
+        if (tickPool != null && due.size() > 1) {
+            tickParallel(due, now, g);
+        } else {
+            for (TimerInstance inst : due) {
+                park(inst, tickOne(inst, now, g), nowMs);
+            }
+        }
+
+        scheduleWake();
+        recordTick(due.size(), System.nanoTime() - startNanos);
+    }
+
+    private void tickParallel(final List<TimerInstance> due, final Instant now, final GlobalConfig g) {
+        final List<Callable<Long>> jobs = new ArrayList<>(due.size());
+        for (TimerInstance inst : due) jobs.add(() -> tickOne(inst, now, g));
+
+        final List<Future<Long>> results = tickPool.invokeAll(jobs);
+        final long nowMs = now.toEpochMilli();
+        for (int i = 0; i < due.size(); i++) {
+            long next;
+            try {
+                next = results.get(i).get();
+            } catch (Exception e) {
+                logger.error("Failed ticking timer {}", due.get(i).id(), e);
+                next = nowMs + WHEEL_TICK_MS;
+            }
+            park(due.get(i), next, nowMs);
+        }
+    }
+
+    private long tickOne(final TimerInstance inst, final Instant now, final GlobalConfig g) {
+        try {
             inst.tick(now, g);
+        } catch (Exception e) {
+            logger.error("Failed ticking timer {}", inst.id(), e);
+        }
+        return inst.nextWakeupMs(now);
+    }
+
+    private void recordTick(final int timers, final long nanos) {
+        ticks++;
+        lastTickTimers = timers;
+        lastTickNanos = nanos;
+        totalTickNanos += nanos;
+        if (nanos > maxTickNanos) maxTickNanos = nanos;
+    }
+
+    private void resetStats() {
+        ticks = 0;
+        lastTickTimers = 0;
+        lastTickNanos = 0;
+        maxTickNanos = 0;
+        totalTickNanos = 0;
+    }
+
+    public synchronized TickStats tickStats() {
+        return new TickStats(
+                ticks,
+                lastTickTimers,
+                lastTickNanos,
+                maxTickNanos,
+                totalTickNanos,
+                tickPool != null,
+                tickPool == null ? 1 : tickPool.getParallelism()
+        );
+    }
+
+    private void park(final TimerInstance inst, final long wakeMs, final long nowMs) {
+        if (wakeMs == Long.MAX_VALUE) return;
+        if (wakeMs - nowMs > DORMANT_HORIZON_MS) {
+            final Dormant d = new Dormant(inst, wakeMs);
+            dormantOf.put(inst, d);
+            dormant.add(d);
+            compactDormant();
+        } else {
+            parked.put(inst, wheel.schedule(inst, wakeMs));
         }
     }
 
+    private void unpark(final TimerInstance inst) {
+        final TimingWheel.Timeout<TimerInstance> t = parked.remove(inst);
+        if (t != null) t.cancel();
+        dormantOf.remove(inst);
+    }
+
+    private void promoteDormant(final long nowMs) {
+        Dormant d;
+        while ((d = dormantHead()) != null && d.activationMs() - DORMANT_HORIZON_MS <= nowMs) {
+            dormant.poll();
+            dormantOf.remove(d.instance());
+            parked.put(d.instance(), wheel.schedule(d.instance(), d.activationMs()));
+        }
+    }
+
+    /**
+     * @return the earliest live dormant entry, after dropping unparked ones from the head of the queue
+     */
+    private Dormant dormantHead() {
+        Dormant d;
+        while ((d = dormant.peek()) != null && dormantOf.get(d.instance()) != d) dormant.poll();
+        return d;
+    }
+
+    /**
+     * Rebuild the queue from the live entries once unparked ones make up most of it, so repeated reloads of far-future
+     * timers do not grow it without bound.
+     */
+    private void compactDormant() {
+        if (dormant.size() <= 2 * dormantOf.size() + 64) return;
+        dormant.clear();
+        dormant.addAll(dormantOf.values());
+    }
+
+    private void scheduleWake() {
+        long at = wheel.nextExpiration();
+        final Dormant head = dormantHead();
+        if (head != null) at = Math.min(at, head.activationMs() - DORMANT_HORIZON_MS);
+        if (at == Long.MAX_VALUE) {
+            cancelWake();
+            return;
+        }
+        // overdue deadlines (the wheel reports Long.MIN_VALUE) wake immediately; never keep a past instant, or the
+        // guard below would skip every later wakeup
+        final long nowMs = System.currentTimeMillis();
+        if (at < nowMs) at = nowMs;
+        if (wakeTask != null && wakeAtMs <= at) return;
+
+        cancelWake();
+        wakeAtMs = at;
+        wakeTask = proxy.getScheduler()
+                .buildTask(plugin, this::tick)
+                .delay(at - nowMs, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+
+    private void cancelWake() {
+        if (wakeTask != null) wakeTask.cancel();
+        wakeTask = null;
+        wakeAtMs = Long.MAX_VALUE;
+    }
+
+    public DispatchStats dispatchStats() {
+        return dispatcher.stats();
+    }
+
+    public RenderCacheStats renderStats() {
+        return renderCache.stats();
+    }
+
+    /**
+     * Drop cached renders after a change that is not part of their key, such as reloaded animations.
+     */
+    public void clearRenderCache() {
+        renderCache.clear();
+    }
+
     public String peekNextOccurrence(final String timerId) {
         TimerInstance inst = instances.get(timerId);
         return inst == null ? null : inst.peekNext();
@@ -87,18 +380,27 @@ public class TimerRunner {
     @Subscribe
     public void onPostLogin(final PostLoginEvent e) {
         final Player p = e.getPlayer();
+        playerIndex.join(p);
         for (TimerInstance inst : instances.values()) inst.refreshFor(p);
     }
 
     @Subscribe
     public void onServerConnected(final ServerConnectedEvent e) {
         final Player p = e.getPlayer();
+        playerIndex.connect(p, e.getServer().getServerInfo().getName());
         for (TimerInstance inst : instances.values()) inst.refreshFor(p);
     }
 
     @Subscribe
     public void onDisconnect(final DisconnectEvent e) {
         final Player p = e.getPlayer();
+        playerIndex.remove(p);
         for (TimerInstance inst : instances.values()) inst.hideFor(p);
     }
+
+    /**
+     * An instance parked until {@code activationMs - DORMANT_HORIZON_MS}.
+     */
+    private record Dormant(TimerInstance instance, long activationMs) {
+    }
 }
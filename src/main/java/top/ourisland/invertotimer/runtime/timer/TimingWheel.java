@@ -0,0 +1,227 @@
+package top.ourisland.invertotimer.runtime.timer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel used by {@link TimerRunner} to wake up only for deadlines that are actually due.
+ * <p>
+ * Level 0 covers {@code tickMs * wheelSize} milliseconds with a resolution of {@code tickMs}; every overflow level
+ * multiplies the covered span by {@code wheelSize} and is only created when a deadline needs it. Buckets of the
+ * overflow levels expire at the start of their span and cascade their entries into finer levels, while level 0 buckets
+ * expire at the end of their span, so an entry is never handed out before its deadline.
+ * <p>
+ * This class is not thread-safe; {@link TimerRunner} guards it with its own lock.
+ *
+ * @param <T> the scheduled item type
+ */
+final class TimingWheel<T> {
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final int level;
+    private final Bucket<T>[] buckets;
+    private final PriorityQueue<Bucket<T>> queue;
+    private final Bucket<T> overdue;
+
+    private long currentTime;
+    private TimingWheel<T> overflow;
+
+    TimingWheel(final long tickMs, final int wheelSize, final long startMs) {
+        this(tickMs, wheelSize, startMs, 0, new PriorityQueue<>(
+                Comparator.<Bucket<T>>comparingLong(b -> b.expiration).thenComparingInt(b -> b.level)
+        ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private TimingWheel(
+            final long tickMs,
+            final int wheelSize,
+            final long startMs,
+            final int level,
+            final PriorityQueue<Bucket<T>> queue
+    ) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.level = level;
+        this.queue = queue;
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+        this.buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) buckets[i] = new Bucket<>(level);
+        this.overdue = new Bucket<>(-1);
+    }
+
+    /**
+     * Schedule {@code item} to be returned by {@link #poll(long)} once {@code deadlineMs} has passed.
+     *
+     * @return a handle that can be used to cancel the entry
+     */
+    Timeout<T> schedule(final T item, final long deadlineMs) {
+        final Timeout<T> t = new Timeout<>(item, deadlineMs);
+        if (!add(t)) overdue.add(t);
+        return t;
+    }
+
+    /**
+     * Remove and return every item whose deadline is at or before {@code nowMs}.
+     */
+    List<T> poll(final long nowMs) {
+        final List<T> out = new ArrayList<>();
+        overdue.flush(t -> out.add(t.item));
+
+        Bucket<T> b;
+        while ((b = queue.peek()) != null && b.expiration <= nowMs) {
+            queue.poll();
+            advanceClock(b.expiration);
+            b.flush(t -> {
+                if (!add(t)) out.add(t.item);
+            });
+        }
+        advanceClock(nowMs);
+        return out;
+    }
+
+    /**
+     * @return the epoch millisecond at which the next bucket expires, {@link Long#MIN_VALUE} if something is already
+     * overdue, or {@link Long#MAX_VALUE} if nothing is scheduled
+     */
+    long nextExpiration() {
+        if (!overdue.isEmpty()) return Long.MIN_VALUE;
+        Bucket<T> b;
+        while ((b = queue.peek()) != null && b.isEmpty()) {
+            queue.poll();
+            b.expiration = -1;
+        }
+        return b == null ? Long.MAX_VALUE : b.expiration;
+    }
+
+    void clear() {
+        Bucket<T> b;
+        while ((b = queue.poll()) != null) b.flush(t -> {
+        });
+        overdue.flush(t -> {
+        });
+    }
+
+    private boolean add(final Timeout<T> t) {
+        final long deadline = t.deadline;
+
+        if (level == 0) {
+            // level 0 buckets expire at the END of their span, so nothing is handed out early
+            if (deadline <= currentTime) return false;
+            if (deadline < currentTime + interval) {
+                final long slot = Math.floorDiv(deadline, tickMs);
+                return place(t, slot, (slot + 1) * tickMs);
+            }
+        } else if (deadline < currentTime + interval) {
+            // overflow levels expire at the START of their span and cascade into finer levels
+            final long slot = Math.floorDiv(deadline, tickMs);
+            return place(t, slot, slot * tickMs);
+        }
+
+        return overflowWheel().add(t);
+    }
+
+    private boolean place(final Timeout<T> t, final long slot, final long expiration) {
+        final Bucket<T> bucket = buckets[(int) Math.floorMod(slot, (long) wheelSize)];
+        bucket.add(t);
+        if (bucket.setExpiration(expiration)) queue.offer(bucket);
+        return true;
+    }
+
+    private TimingWheel<T> overflowWheel() {
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime, level + 1, queue);
+        }
+        return overflow;
+    }
+
+    private void advanceClock(final long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - Math.floorMod(timeMs, tickMs);
+            if (overflow != null) overflow.advanceClock(currentTime);
+        }
+    }
+
+    /**
+     * A scheduled entry; can be cancelled until it is handed out by {@link #poll(long)}.
+     */
+    static final class Timeout<T> {
+        private final T item;
+        private final long deadline;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(final T item, final long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+
+        boolean isPending() {
+            return bucket != null;
+        }
+
+        void cancel() {
+            if (bucket != null) bucket.remove(this);
+        }
+    }
+
+    private static final class Bucket<T> {
+        private final Timeout<T> root = new Timeout<>(null, -1);
+        private final int level;
+        private long expiration = -1;
+
+        private Bucket(final int level) {
+            this.level = level;
+            root.prev = root;
+            root.next = root;
+        }
+
+        boolean setExpiration(final long exp) {
+            if (expiration == exp) return false;
+            expiration = exp;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return root.next == root;
+        }
+
+        void add(final Timeout<T> t) {
+            t.bucket = this;
+            t.prev = root.prev;
+            t.next = root;
+            root.prev.next = t;
+            root.prev = t;
+        }
+
+        void remove(final Timeout<T> t) {
+            if (t.bucket != this) return;
+            t.prev.next = t.next;
+            t.next.prev = t.prev;
+            t.prev = null;
+            t.next = null;
+            t.bucket = null;
+        }
+
+        void flush(final Consumer<Timeout<T>> sink) {
+            Timeout<T> t = root.next;
+            while (t != root) {
+                final Timeout<T> n = t.next;
+                remove(t);
+                sink.accept(t);
+                t = n;
+            }
+            expiration = -1;
+        }
+    }
+}
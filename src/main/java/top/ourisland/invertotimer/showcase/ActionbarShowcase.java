@@ -1,23 +1,38 @@
 package top.ourisland.invertotimer.showcase;
 
+import com.velocitypowered.api.proxy.Player;
 import lombok.NonNull;
+import net.kyori.adventure.text.Component;
+import top.ourisland.invertotimer.config.plan.TextSpec;
 import top.ourisland.invertotimer.runtime.I18n;
+import top.ourisland.invertotimer.runtime.RenderedText;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
  * A showcase using actionbar to display information.
+ * <p>
+ * A player is only sent the action bar again if it differs from the one they last got, or if that one is about to
+ * fade out on the client.
  *
  * @author Chiloven945
  */
 public class ActionbarShowcase implements Showcase {
+    /**
+     * The client shows an action bar for about three seconds; resend an unchanged one well before it fades.
+     */
+    private static final long KEEPALIVE_MS = 2000;
+
     private final RuntimeContext ctx;
-    private final Supplier<Object> textSupplier;
+    private final Supplier<TextSpec> textSupplier;
+    private final Map<Player, Sent> lastSent = new ConcurrentHashMap<>();
 
     public ActionbarShowcase(
             @NonNull RuntimeContext ctx,
-            @NonNull Supplier<Object> textSupplier
+            @NonNull Supplier<TextSpec> textSupplier
     ) {
         this.ctx = ctx;
         this.textSupplier = textSupplier;
@@ -33,13 +48,33 @@ public class ActionbarShowcase implements Showcase {
         return I18n.langStrNP("itimer.showcase.actionbar.desc");
     }
 
+    @Override
+    public long nextChangeMs() {
+        return ctx.nextChangeMs(textSupplier.get().text());
+    }
+
     @Override
     public void show() {
-        final String raw = String.valueOf(textSupplier.get());
-        ctx.players().stream()
-                .filter(ctx::allowed)
-                .forEach(
-                        p -> p.sendActionBar(ctx.render(p, raw))
-                );
+        final RenderedText text = ctx.prepare(textSupplier.get().text());
+        final long nowMs = System.currentTimeMillis();
+        ctx.players().forEach(
+                p -> send(p, text.forPlayer(p), nowMs)
+        );
+    }
+
+    private void send(Player p, Component text, long nowMs) {
+        final Sent last = lastSent.get(p);
+        if (last != null && nowMs - last.atMs() < KEEPALIVE_MS && last.text().equals(text)) return;
+
+        p.sendActionBar(text);
+        lastSent.put(p, new Sent(text, nowMs));
+    }
+
+    @Override
+    public void forget(Player player) {
+        lastSent.remove(player);
+    }
+
+    private record Sent(Component text, long atMs) {
     }
 }
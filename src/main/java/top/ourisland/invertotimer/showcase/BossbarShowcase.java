@@ -1,47 +1,54 @@
 package top.ourisland.invertotimer.showcase;
 
 import com.velocitypowered.api.proxy.Player;
-import lombok.NonNull;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
+import top.ourisland.invertotimer.config.plan.TextSpec;
 import top.ourisland.invertotimer.runtime.I18n;
+import top.ourisland.invertotimer.runtime.RenderedText;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
  * A showcase using a bossbar to display information.
+ * <p>
+ * While the text is the same for everyone, all players watch one shared bar. A text that depends on the audience
+ * gives every player their own bar instead, so one player's name update is never broadcast to the others. Name and
+ * progress are only written when they actually change, and a player's bar is released when they are hidden from it.
  *
  * @author Chiloven945
  */
 public class BossbarShowcase implements Showcase {
     private final RuntimeContext ctx;
-    private final Supplier<Object> textSupplier;
-    private final BossBar bossBar;
+    private final Supplier<TextSpec> textSupplier;
     private final Supplier<Float> progressSupplier;
+    private final BossBar.Color color;
+    private final BossBar sharedBar;
+    /**
+     * The bar each player currently sees: {@link #sharedBar} or their own.
+     */
+    private final Map<Player, BossBar> shown = new HashMap<>();
+    private float progress = 1.0f;
 
     public BossbarShowcase(
             RuntimeContext ctx,
-            Supplier<Object> textSupplier,
+            Supplier<TextSpec> textSupplier,
             Supplier<Float> progressSupplier,
             String colorName
     ) {
         this.ctx = ctx;
         this.textSupplier = textSupplier;
         this.progressSupplier = progressSupplier;
-
-        BossBar.Color color = parseColor(colorName);
-
-        this.bossBar = BossBar.bossBar(
-                Component.empty(),
-                1.0f,
-                color,
-                BossBar.Overlay.PROGRESS
-        );
+        this.color = parseColor(colorName);
+        this.sharedBar = newBar(Component.empty());
     }
 
-    private static BossBar.Color parseColor(@NonNull String s) {
+    private static BossBar.Color parseColor(String s) {
+        if (s == null) return BossBar.Color.BLUE;
         return switch (s.toLowerCase(Locale.ROOT)) {
             case "pink" -> BossBar.Color.PINK;
             case "red" -> BossBar.Color.RED;
@@ -64,39 +71,86 @@ public class BossbarShowcase implements Showcase {
     }
 
     @Override
-    public void show() {
-        float prog = progressSupplier.get();
-        if (prog < 0f) prog = 0f;
-        if (prog > 1f) prog = 1f;
-        bossBar.progress(prog);
+    public long nextChangeMs() {
+        return ctx.nextChangeMs(textSupplier.get().text());
+    }
 
-        final String raw = String.valueOf(textSupplier.get());
+    @Override
+    public synchronized void show() {
+        updateProgress();
+
+        final RenderedText text = ctx.prepare(textSupplier.get().text());
+        if (text.isShared()) setName(sharedBar, text.forPlayer(null));
+
+        shown.entrySet().removeIf(e -> {
+            if (ctx.allowed(e.getKey())) return false;
+            e.getKey().hideBossBar(e.getValue());
+            return true;
+        });
+        for (Player p : ctx.players()) showTo(p, text);
+    }
+
+    public synchronized void showTo(Player p) {
+        if (!ctx.allowed(p)) return;
+
+        updateProgress();
 
-        for (Player p : ctx.players()) {
-            if (!ctx.allowed(p)) {
-                p.hideBossBar(bossBar);
-                continue;
-            }
+        final RenderedText text = ctx.prepare(textSupplier.get().text());
+        if (text.isShared()) setName(sharedBar, text.forPlayer(null));
+        showTo(p, text);
+    }
 
-            bossBar.name(ctx.render(p, raw));
-            p.showBossBar(bossBar);
+    private void showTo(Player p, RenderedText text) {
+        final BossBar current = shown.get(p);
+
+        BossBar bar = sharedBar;
+        if (!text.isShared()) {
+            bar = current == null || current == sharedBar ? newBar(Component.empty()) : current;
+            setName(bar, text.forPlayer(p));
         }
+
+        if (current == bar) return;
+        if (current != null) p.hideBossBar(current);
+        p.showBossBar(bar);
+        shown.put(p, bar);
     }
 
-    public void showTo(Player p) {
-        if (!ctx.allowed(p)) return;
+    @Override
+    public void forget(Player player) {
+        hideFrom(player);
+    }
 
-        bossBar.name(ctx.render(p, String.valueOf(textSupplier.get())));
+    public synchronized void hideFrom(Player p) {
+        final BossBar bar = shown.remove(p);
+        if (bar != null) p.hideBossBar(bar);
+    }
 
+    /**
+     * Hide the bar from everyone who currently sees it.
+     */
+    public synchronized void hideAll() {
+        shown.forEach((p, bar) -> p.hideBossBar(bar));
+        shown.clear();
+    }
+
+    private void updateProgress() {
         float prog = progressSupplier.get();
         if (prog < 0f) prog = 0f;
         if (prog > 1f) prog = 1f;
-        bossBar.progress(prog);
+        if (prog == progress) return;
+
+        progress = prog;
+        sharedBar.progress(prog);
+        for (BossBar bar : shown.values()) {
+            if (bar != sharedBar) bar.progress(prog);
+        }
+    }
 
-        p.showBossBar(bossBar);
+    private BossBar newBar(Component name) {
+        return BossBar.bossBar(name, progress, color, BossBar.Overlay.PROGRESS);
     }
 
-    public void hideFrom(Player p) {
-        p.hideBossBar(bossBar);
+    private static void setName(BossBar bar, Component name) {
+        if (!bar.name().equals(name)) bar.name(name);
     }
 }
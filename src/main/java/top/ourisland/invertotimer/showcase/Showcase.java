@@ -1,5 +1,7 @@
 package top.ourisland.invertotimer.showcase;
 
+import com.velocitypowered.api.proxy.Player;
+
 /**
  * Represents a display unit that can present information to players.
  * <p>
@@ -46,4 +48,25 @@ public interface Showcase {
      * </p>
      */
     void show();
+
+    /**
+     * Returns the next instant at which {@link #show()} would display something different from the last call, e.g.
+     * because the remaining seconds or an animation frame change.
+     * <p>
+     * The runtime uses this to send updates exactly when the output changes instead of only on the fixed interval.
+     * </p>
+     *
+     * @return epoch milliseconds, or {@link Long#MAX_VALUE} if the content does not change on its own
+     */
+    default long nextChangeMs() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Drops everything this showcase remembers about {@code player}, e.g. when they disconnect.
+     *
+     * @param player the player to forget
+     */
+    default void forget(Player player) {
+    }
 }
@@ -1,7 +1,9 @@
 package top.ourisland.invertotimer.showcase;
 
 import lombok.NonNull;
+import top.ourisland.invertotimer.config.plan.TextSpec;
 import top.ourisland.invertotimer.runtime.I18n;
+import top.ourisland.invertotimer.runtime.RenderedText;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 
 import java.util.function.Supplier;
@@ -13,11 +15,11 @@ import java.util.function.Supplier;
  */
 public class TextShowcase implements Showcase {
     private final RuntimeContext ctx;
-    private final Supplier<Object> textSupplier;
+    private final Supplier<TextSpec> textSupplier;
 
     public TextShowcase(
             @NonNull RuntimeContext ctx,
-            @NonNull Supplier<Object> textSupplier
+            @NonNull Supplier<TextSpec> textSupplier
     ) {
         this.ctx = ctx;
         this.textSupplier = textSupplier;
@@ -33,13 +35,16 @@ public class TextShowcase implements Showcase {
         return I18n.langStrNP("itimer.showcase.text.desc");
     }
 
+    @Override
+    public long nextChangeMs() {
+        return ctx.nextChangeMs(textSupplier.get().text());
+    }
+
     @Override
     public void show() {
-        final String raw = String.valueOf(textSupplier.get());
-        ctx.players().stream()
-                .filter(ctx::allowed)
-                .forEach(
-                        p -> p.sendMessage(ctx.render(p, raw))
-                );
+        final RenderedText text = ctx.prepare(textSupplier.get().text());
+        ctx.players().forEach(
+                p -> p.sendMessage(text.forPlayer(p))
+        );
     }
 }
@@ -2,26 +2,40 @@ package top.ourisland.invertotimer.showcase;
 
 import com.velocitypowered.api.proxy.Player;
 import lombok.NonNull;
-import net.kyori.adventure.text.Component;
 import net.kyori.adventure.title.Title;
+import net.kyori.adventure.title.TitlePart;
+import top.ourisland.invertotimer.config.plan.TextSpec;
+import top.ourisland.invertotimer.runtime.RenderedText;
 import top.ourisland.invertotimer.runtime.RuntimeContext;
 
 import java.time.Duration;
-import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
  * A showcase using title and subtitle to display information.
+ * <p>
+ * Every player's last title is remembered. An unchanged title is not sent again while it is still on screen, and when
+ * only the subtitle changed just the subtitle part is sent, which updates it without restarting the title.
  *
  * @author Chiloven945
  */
 public class TitleShowcase implements Showcase {
+    /**
+     * Resend the full title this long before its fade-in and stay time run out, so it does not start fading between
+     * two refreshes.
+     */
+    private static final long KEEPALIVE_MARGIN_MS = 1000;
+
     private final RuntimeContext ctx;
-    private final Supplier<Object> textSupplier;
+    private final Supplier<TextSpec> textSupplier;
+    private final Map<Player, Sent> lastSent = new ConcurrentHashMap<>();
 
     public TitleShowcase(
             @NonNull RuntimeContext ctx,
-            @NonNull Supplier<Object> textSupplier
+            @NonNull Supplier<TextSpec> textSupplier
     ) {
         this.ctx = ctx;
         this.textSupplier = textSupplier;
@@ -37,75 +51,62 @@ public class TitleShowcase implements Showcase {
         return "Show title";
     }
 
+    @Override
+    public long nextChangeMs() {
+        final TextSpec spec = textSupplier.get();
+        return Math.min(ctx.nextChangeMs(spec.title()), ctx.nextChangeMs(spec.subtitle()));
+    }
+
     @Override
     public void show() {
-        Parsed p0 = parse(textSupplier.get());
+        final TextSpec spec = textSupplier.get();
 
         Title.Times times = Title.Times.times(
-                Duration.ofSeconds(p0.fadeIn()),
-                Duration.ofSeconds(p0.stay()),
-                Duration.ofSeconds(p0.fadeOut())
+                Duration.ofSeconds(spec.fadeInSec()),
+                Duration.ofSeconds(spec.staySec()),
+                Duration.ofSeconds(spec.fadeOutSec())
         );
 
-        for (Player p : ctx.players()) {
-            if (!ctx.allowed(p)) continue;
+        final long keepMs = times.fadeIn().plus(times.stay()).toMillis() - KEEPALIVE_MARGIN_MS;
+        final long nowMs = System.currentTimeMillis();
 
-            Component t = ctx.render(p, p0.title());
-            Component s = ctx.render(p, p0.subtitle());
+        final RenderedText title = ctx.prepare(spec.title());
+        final RenderedText subtitle = ctx.prepare(spec.subtitle());
+        final Title shared = title.isShared() && subtitle.isShared()
+                ? Title.title(title.forPlayer(null), subtitle.forPlayer(null), times)
+                : null;
 
-            p.showTitle(Title.title(t, s, times));
+        for (Player p : ctx.players()) {
+            final Title t = shared != null ? shared : Title.title(title.forPlayer(p), subtitle.forPlayer(p), times);
+            send(p, t, nowMs, keepMs);
         }
     }
 
-    private static Parsed parse(Object raw) {
-        String title = "";
-        String subtitle = "";
-        long fadeIn = 0;
-        long stay = 2;
-        long fadeOut = 0;
-
-        if (raw instanceof List<?> list) {
-            if (!list.isEmpty()) title = String.valueOf(list.get(0));
-            if (list.size() > 1) subtitle = String.valueOf(list.get(1));
-            if (list.size() > 2) fadeIn = parseSeconds(list.get(2), 0);
-            if (list.size() > 3) stay = parseSeconds(list.get(3), 2);
-            if (list.size() > 4) fadeOut = parseSeconds(list.get(4), 0);
-        } else if (raw instanceof Object[] arr) {
-            if (arr.length > 0) title = String.valueOf(arr[0]);
-            if (arr.length > 1) subtitle = String.valueOf(arr[1]);
-            if (arr.length > 2) fadeIn = parseSeconds(arr[2], 0);
-            if (arr.length > 3) stay = parseSeconds(arr[3], 2);
-            if (arr.length > 4) fadeOut = parseSeconds(arr[4], 0);
-        } else if (raw != null) {
-            title = String.valueOf(raw);
-            subtitle = "";
-        }
-
-        if (title == null) title = "";
-        if (subtitle == null) subtitle = "";
+    private void send(Player p, Title t, long nowMs, long keepMs) {
+        final Sent last = lastSent.get(p);
+        if (last != null && nowMs - last.atMs() < keepMs
+                && last.title().title().equals(t.title())
+                && Objects.equals(last.title().times(), t.times())) {
+            if (last.title().subtitle().equals(t.subtitle())) return;
 
-        if (fadeIn < 0) fadeIn = 0;
-        if (stay < 0) stay = 0;
-        if (fadeOut < 0) fadeOut = 0;
+            p.sendTitlePart(TitlePart.SUBTITLE, t.subtitle());
+            lastSent.put(p, new Sent(t, last.atMs()));
+            return;
+        }
 
-        return new Parsed(title, subtitle, fadeIn, stay, fadeOut);
+        p.showTitle(t);
+        lastSent.put(p, new Sent(t, nowMs));
     }
 
-    private static long parseSeconds(Object o, long def) {
-        if (o instanceof Number n) return n.longValue();
-        try {
-            return Long.parseLong(String.valueOf(o));
-        } catch (NumberFormatException e) {
-            return def;
-        }
+    @Override
+    public void forget(Player player) {
+        lastSent.remove(player);
     }
 
-    private record Parsed(
-            String title,
-            String subtitle,
-            long fadeIn,
-            long stay,
-            long fadeOut
-    ) {
+    /**
+     * @param title the title the player currently sees
+     * @param atMs  when the full title was last sent, which is when its display time started
+     */
+    private record Sent(Title title, long atMs) {
     }
 }
@@ -4,6 +4,19 @@ import java.time.Duration;
 import java.util.Locale;
 
 public final class TimeUtil {
+    /**
+     * Tens and ones digit of 0..99, so two-digit fields are appended without division or allocation.
+     */
+    private static final char[] DIGIT_TENS = new char[100];
+    private static final char[] DIGIT_ONES = new char[100];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_TENS[i] = (char) ('0' + i / 10);
+            DIGIT_ONES[i] = (char) ('0' + i % 10);
+        }
+    }
+
     private TimeUtil() {
     }
 
@@ -44,16 +57,64 @@ public final class TimeUtil {
     }
 
     public static String formatHMS(long totalSeconds) {
+        final StringBuilder sb = new StringBuilder(16);
+        appendHMS(sb, totalSeconds);
+        return sb.toString();
+    }
+
+    /**
+     * @return the first instant after {@code nowMs} at which the whole seconds left until {@code targetMs} drop, or
+     * {@link Long#MAX_VALUE} once the target is reached
+     */
+    public static long nextSecondBoundaryMs(final long nowMs, final long targetMs) {
+        final long left = targetMs - nowMs;
+        if (left <= 0) return Long.MAX_VALUE;
+        return nowMs + left % 1000 + 1;
+    }
+
+    /**
+     * Append {@code totalSeconds} as {@code HH:MM:SS}, or {@code Nd HH:MM:SS} from one day on. Negative values are
+     * treated as zero.
+     */
+    public static void appendHMS(final StringBuilder sb, long totalSeconds) {
         if (totalSeconds < 0) totalSeconds = 0;
-        long days = totalSeconds / 86400;
-        long rem = totalSeconds % 86400;
-        long hours = rem / 3600;
-        rem %= 3600;
-        long minutes = rem / 60;
-        long seconds = rem % 60;
-        if (days > 0) {
-            return String.format("%dd %02d:%02d:%02d", days, hours, minutes, seconds);
+        final long days = totalSeconds / 86400;
+        final int rem = (int) (totalSeconds % 86400);
+
+        if (days > 0) sb.append(days).append("d ");
+        appendTwoDigits(sb, rem / 3600);
+        sb.append(':');
+        appendTwoDigits(sb, rem % 3600 / 60);
+        sb.append(':');
+        appendTwoDigits(sb, rem % 60);
+    }
+
+    /**
+     * Append {@code value} left-padded with zeros to at least {@code width} characters, like {@code %0<width>d}.
+     */
+    public static void appendPadded(final StringBuilder sb, final long value, final int width) {
+        if (width == 2 && value >= 0 && value < 100) {
+            appendTwoDigits(sb, (int) value);
+            return;
+        }
+
+        if (width > 1) {
+            final int digits = value < 0 ? Long.toString(value).length() : digitCount(value);
+            for (int i = digits; i < width; i++) sb.append('0');
+        }
+        sb.append(value);
+    }
+
+    private static void appendTwoDigits(final StringBuilder sb, final int value) {
+        sb.append(DIGIT_TENS[value]).append(DIGIT_ONES[value]);
+    }
+
+    private static int digitCount(long v) {
+        int n = 1;
+        while (v >= 10) {
+            v /= 10;
+            n++;
         }
-        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+        return n;
     }
 }
@@ -0,0 +1,201 @@
+package top.ourisland.invertotimer.util;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.*;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.Reader;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Streaming reader for config files that consist of one big root section (like {@code timers:} or
+ * {@code animations:}).
+ * <p>
+ * Instead of loading the whole document into nested maps, the file is read as a stream of SnakeYAML events and only one
+ * entry of the section is materialized at a time: its node subtree is built, constructed with the same
+ * {@link SafeConstructor} rules as {@link YamlUtil#parse(String)} (implicit types, anchors, merge keys) and handed to
+ * the caller, after which it can be dropped. Peak memory is bounded by the largest entry instead of the whole file.
+ * <p>
+ * Like SnakeYAML's loader, a root key that appears more than once keeps its last value: every occurrence of the
+ * section is announced to the caller, which drops what it collected from the earlier ones.
+ */
+public final class YamlStream {
+    private YamlStream() {
+    }
+
+    /**
+     * Stream the entries of the root-level mapping {@code section} to {@code sink}, in document order.
+     *
+     * @param onSection called each time the {@code section} key is found, before its entries; later occurrences replace
+     *                  earlier ones, so callers reset what they collected so far
+     * @return {@code false} if the document has no root map or the last {@code section} key does not hold a map
+     * @throws YAMLException if the document is malformed
+     */
+    public static boolean streamSection(
+            final Reader reader,
+            final String section,
+            final Runnable onSection,
+            final BiConsumer<String, Object> sink
+    ) {
+        final Events events = new Events(YamlUtil.yaml().parse(reader).iterator());
+        final LoaderOptions options = new LoaderOptions();
+        final TreeBuilder builder = new TreeBuilder(events, options.getMaxAliasesForCollections());
+        final NodeConstructor constructor = new NodeConstructor(options);
+
+        events.expect(StreamStartEvent.class);
+        if (!(events.next() instanceof DocumentStartEvent)) return false;
+        if (!(events.peek() instanceof MappingStartEvent)) return false;
+        events.next();
+
+        boolean found = false;
+        Event ev;
+        while (!((ev = events.next()) instanceof MappingEndEvent)) {
+            final Node key = builder.node(ev);
+            final boolean match = key instanceof ScalarNode s && section.equals(s.getValue());
+
+            if (match) {
+                onSection.run();
+                found = events.peek() instanceof MappingStartEvent;
+            }
+            if (match && found) {
+                events.next();
+                Event entry;
+                while (!((entry = events.next()) instanceof MappingEndEvent)) {
+                    final Object k = constructor.construct(builder.node(entry));
+                    final Object v = constructor.construct(builder.node(events.next()));
+                    sink.accept(String.valueOf(k), v);
+                }
+            } else {
+                builder.node(events.next());
+            }
+        }
+        return found;
+    }
+
+    private static final class Events {
+        private final Iterator<Event> it;
+        private Event peeked;
+
+        private Events(final Iterator<Event> it) {
+            this.it = it;
+        }
+
+        Event next() {
+            if (peeked != null) {
+                final Event e = peeked;
+                peeked = null;
+                return e;
+            }
+            if (!it.hasNext()) throw new YAMLException("Unexpected end of document");
+            return it.next();
+        }
+
+        Event peek() {
+            if (peeked == null) peeked = next();
+            return peeked;
+        }
+
+        void expect(final Class<? extends Event> type) {
+            final Event e = next();
+            if (!type.isInstance(e)) throw new YAMLException("Expected " + type.getSimpleName() + " but got " + e);
+        }
+    }
+
+    /**
+     * Builds node subtrees from events the same way SnakeYAML's composer does. Anchored nodes are remembered for the
+     * rest of the document so later aliases resolve.
+     */
+    private static final class TreeBuilder {
+        private final Events events;
+        private final int maxAliases;
+        private final Resolver resolver = new Resolver();
+        private final Map<String, Node> anchors = new HashMap<>();
+        private int aliases;
+
+        private TreeBuilder(final Events events, final int maxAliases) {
+            this.events = events;
+            this.maxAliases = maxAliases;
+        }
+
+        Node node(final Event ev) {
+            return switch (ev) {
+                case AliasEvent a -> alias(a);
+                case ScalarEvent s -> scalar(s);
+                case SequenceStartEvent s -> sequence(s);
+                case MappingStartEvent m -> mapping(m);
+                default -> throw new YAMLException("Unexpected event " + ev);
+            };
+        }
+
+        private Node alias(final AliasEvent a) {
+            final Node n = anchors.get(a.getAnchor());
+            if (n == null) throw new YAMLException("Found undefined alias " + a.getAnchor());
+            if (n instanceof CollectionNode<?> && ++aliases > maxAliases) {
+                throw new YAMLException("Number of aliases for non-scalar nodes exceeds the specified max=" + maxAliases);
+            }
+            return n;
+        }
+
+        private Node scalar(final ScalarEvent s) {
+            final boolean resolved = s.getTag() == null || "!".equals(s.getTag());
+            final Tag tag = resolved
+                    ? resolver.resolve(NodeId.scalar, s.getValue(), s.getImplicit().canOmitTagInPlainScalar())
+                    : new Tag(s.getTag());
+            final Node n = new ScalarNode(tag, resolved, s.getValue(), s.getStartMark(), s.getEndMark(),
+                    s.getScalarStyle());
+            anchor(s, n);
+            return n;
+        }
+
+        private Node sequence(final SequenceStartEvent s) {
+            final boolean resolved = s.getTag() == null || "!".equals(s.getTag());
+            final Tag tag = resolved ? resolver.resolve(NodeId.sequence, null, s.getImplicit()) : new Tag(s.getTag());
+            final List<Node> children = new ArrayList<>();
+            final SequenceNode n = new SequenceNode(tag, resolved, children, s.getStartMark(), null, s.getFlowStyle());
+            anchor(s, n);
+
+            Event ev;
+            while (!((ev = events.next()) instanceof SequenceEndEvent)) children.add(node(ev));
+            n.setEndMark(ev.getEndMark());
+            return n;
+        }
+
+        private Node mapping(final MappingStartEvent m) {
+            final boolean resolved = m.getTag() == null || "!".equals(m.getTag());
+            final Tag tag = resolved ? resolver.resolve(NodeId.mapping, null, m.getImplicit()) : new Tag(m.getTag());
+            final List<NodeTuple> children = new ArrayList<>();
+            final MappingNode n = new MappingNode(tag, resolved, children, m.getStartMark(), null, m.getFlowStyle());
+            anchor(m, n);
+
+            Event ev;
+            while (!((ev = events.next()) instanceof MappingEndEvent)) {
+                final Node k = node(ev);
+                if (k.getTag().equals(Tag.MERGE)) n.setMerged(true);
+                children.add(new NodeTuple(k, node(events.next())));
+            }
+            n.setEndMark(ev.getEndMark());
+            return n;
+        }
+
+        private void anchor(final NodeEvent ev, final Node n) {
+            if (ev.getAnchor() != null) {
+                n.setAnchor(ev.getAnchor());
+                anchors.put(ev.getAnchor(), n);
+            }
+        }
+    }
+
+    private static final class NodeConstructor extends SafeConstructor {
+        private NodeConstructor(final LoaderOptions options) {
+            super(options);
+        }
+
+        Object construct(final Node node) {
+            return constructDocument(node);
+        }
+    }
+}
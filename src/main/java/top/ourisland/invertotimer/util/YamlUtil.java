@@ -8,19 +8,24 @@ import java.util.List;
 import java.util.Map;
 
 public final class YamlUtil {
-    private static final Yaml YAML;
+    // Yaml instances are not thread-safe; config files are parsed in parallel
+    private static final ThreadLocal<Yaml> YAML = ThreadLocal.withInitial(
+            () -> new Yaml(new SafeConstructor(new LoaderOptions()))
+    );
 
-    static {
-        LoaderOptions opt = new LoaderOptions();
-        YAML = new Yaml(new SafeConstructor(opt));
+    private YamlUtil() {
     }
 
-    private YamlUtil() {
+    /**
+     * The calling thread's loader, shared by {@link #parse(String)} and {@link YamlStream}.
+     */
+    static Yaml yaml() {
+        return YAML.get();
     }
 
     public static Object parse(String yamlText) {
         if (yamlText == null || yamlText.isBlank()) return Map.of();
-        Object o = YAML.load(yamlText);
+        Object o = yaml().load(yamlText);
         return o == null ? Map.of() : o;
     }
 